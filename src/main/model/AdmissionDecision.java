@@ -0,0 +1,16 @@
+package model;
+
+/**
+ * Represents what an order queue does with a new order, given the kitchen's
+ * current backlog (see OrderQueue.setCapacity)
+ */
+public enum AdmissionDecision {
+    /** the order is queued and will be ready within the maximum wait */
+    ACCEPTED,
+    /** the order is queued, but will only be ready at a later, quoted time */
+    QUOTED,
+    /** the order is held back and queued once the backlog falls far enough */
+    DEFERRED,
+    /** the order is not queued */
+    REJECTED
+}
@@ -0,0 +1,53 @@
+package model;
+
+import java.time.LocalTime;
+
+/**
+ * Represents the outcome of offering an order to an order queue: what was done
+ * with it and when it should be ready if it were queued now
+ */
+public final class AdmissionResult {
+    private final AdmissionDecision decision;
+    private final long waitMinutes;
+    private final LocalTime readyTime;
+
+    /**
+     * REQUIRES: decision and readyTime are not null, and waitMinutes >= 0
+     * EFFECTS: creates a result with the given decision and estimate
+     */
+    AdmissionResult(AdmissionDecision decision, long waitMinutes, LocalTime readyTime) {
+        this.decision = decision;
+        this.waitMinutes = waitMinutes;
+        this.readyTime = readyTime;
+    }
+
+    /**
+     * EFFECTS: returns what the queue did, or would do, with the order
+     */
+    public AdmissionDecision getDecision() {
+        return decision;
+    }
+
+    /**
+     * EFFECTS: returns true if the order was, or would be, queued right away
+     */
+    public boolean isQueued() {
+        return decision == AdmissionDecision.ACCEPTED || decision == AdmissionDecision.QUOTED;
+    }
+
+    /**
+     * EFFECTS: returns the estimated number of minutes until the order would be
+     * ready if it were queued now
+     */
+    public long getWaitMinutes() {
+        return waitMinutes;
+    }
+
+    /**
+     * EFFECTS: returns the time of day at which the order would be ready if it were
+     * queued now; this is the pickup time to quote to the customer
+     */
+    public LocalTime getReadyTime() {
+        return readyTime;
+    }
+}
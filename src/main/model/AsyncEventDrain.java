@@ -0,0 +1,185 @@
+package model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents the asynchronous half of an EventLog: a bounded buffer that many
+ * threads add events to without locking, and a single background thread that
+ * takes them out in batches, records them in the log and writes them to sinks
+ */
+final class AsyncEventDrain implements Runnable {
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next slot to claim
+    private volatile long head; // next slot to take; written only by the drain thread
+    private volatile long delivered; // events delivered so far
+    private final EventOverflowPolicy policy;
+    private final List<EventSink> sinks;
+    private final EventLog log;
+    private final Thread thread;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong sinkFailures = new AtomicLong();
+    private volatile int peakDepth;
+    private volatile boolean stopping;
+    private final AtomicInteger offering = new AtomicInteger(); // producers inside offer
+
+    /**
+     * REQUIRES: capacity is a power of two
+     * EFFECTS: creates a drain feeding the given log and sinks; it does not run
+     * until started
+     */
+    AsyncEventDrain(int capacity, EventOverflowPolicy policy, List<EventSink> sinks, EventLog log) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.policy = policy;
+        this.sinks = new ArrayList<>(sinks);
+        this.log = log;
+        this.thread = new Thread(this, "event-log-writer");
+        this.thread.setDaemon(true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the background thread
+    void start() {
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given event to the buffer without locking; if the buffer
+    // is full, waits for space (BLOCK) or discards and counts the event (DROP).
+    // Returns false, without taking the event, if the drain is stopping; the
+    // background thread does not exit while an offer is under way, so an event
+    // that is taken is always delivered
+    boolean offer(Event e) {
+        offering.incrementAndGet();
+        try {
+            if (stopping) {
+                return false;
+            }
+            while (true) {
+                long t = tail.get();
+                if (t - head > mask) {
+                    if (policy == EventOverflowPolicy.DROP) {
+                        rejected.incrementAndGet();
+                        return true;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                } else if (tail.compareAndSet(t, t + 1)) {
+                    slots.lazySet((int) (t & mask), e);
+                    return true;
+                }
+            }
+        } finally {
+            offering.decrementAndGet();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes batches of events out of the buffer, recording them in the
+    // log and writing them to the sinks, until stopped and the buffer is empty
+    @Override
+    public void run() {
+        List<Event> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            peakDepth = Math.max(peakDepth, depth());
+            if (takeBatch(batch) > 0) {
+                deliver(batch);
+                delivered = head;
+                batch.clear();
+            } else if (stopping && offering.get() == 0 && depth() == 0) {
+                return;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits until every event added so far has been delivered, then stops
+    // the background thread and closes the sinks
+    void stop() {
+        stopping = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (EventSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                sinkFailures.incrementAndGet();
+            }
+        }
+    }
+
+    // EFFECTS: waits until every event added before the call has been delivered
+    void awaitDelivered() {
+        long target = tail.get();
+        while (delivered < target && thread.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    // EFFECTS: returns the number of events waiting in the buffer
+    int depth() {
+        return (int) (tail.get() - head);
+    }
+
+    // EFFECTS: returns the largest number of events seen waiting in the buffer
+    int peakDepth() {
+        return peakDepth;
+    }
+
+    // EFFECTS: returns the number of events discarded because the buffer was full
+    long rejectedCount() {
+        return rejected.get();
+    }
+
+    // EFFECTS: returns the number of batches a sink failed to write or close
+    long sinkFailureCount() {
+        return sinkFailures.get();
+    }
+
+    // MODIFIES: this, batch
+    // EFFECTS: moves up to MAX_BATCH published events, oldest first, from the
+    // buffer into batch and returns how many were moved
+    private int takeBatch(List<Event> batch) {
+        long h = head;
+        while (batch.size() < MAX_BATCH) {
+            int slot = (int) (h & mask);
+            Event e = slots.get(slot);
+            if (e == null) {
+                break;
+            }
+            slots.lazySet(slot, null);
+            batch.add(e);
+            h++;
+        }
+        head = h;
+        return batch.size();
+    }
+
+    // EFFECTS: records the batch in the log and writes it to every sink, counting
+    // sinks that fail
+    private void deliver(List<Event> batch) {
+        log.record(batch);
+        for (EventSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (IOException e) {
+                sinkFailures.incrementAndGet();
+            }
+        }
+    }
+}
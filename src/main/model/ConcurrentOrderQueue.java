@@ -0,0 +1,686 @@
+package model;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.json.JSONObject;
+import persistence.OrderArchive;
+
+/**
+ * Represents an order queue that can be shared by several counter terminals.
+ * New orders are handed off through a lock-free inbox so that a till never waits
+ * for another till to finish adding; whichever thread next holds the queue lock
+ * drains the inbox into the queue, in arrival order. All other operations run
+ * under that lock and see every order added before they were called. Listeners
+ * are called with the lock held, on whichever thread made or drained the change.
+ */
+public class ConcurrentOrderQueue extends OrderQueue {
+    private final ConcurrentLinkedQueue<Order> inbox;
+    private final ReentrantLock lock;
+
+    /**
+     * EFFECTS: creates an empty concurrent order queue
+     */
+    public ConcurrentOrderQueue() {
+        super();
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.lock = new ReentrantLock();
+    }
+
+    /**
+     * REQUIRES: order is not null and no order with the same ID is in this queue
+     * MODIFIES: this
+     * EFFECTS: hands the given order to the pending queue without blocking; if no
+     * other thread is using the queue, the order is queued immediately
+     */
+    @Override
+    public void addOrder(Order order) {
+        inbox.offer(order);
+        if (lock.tryLock()) {
+            try {
+                drainInbox();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void addCompletedOrder(Order order) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.addCompletedOrder(order);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void completeOrder(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.completeOrder(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void cancelOrder(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.cancelOrder(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addOrders(Collection<Order> orders) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.addOrders(orders);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int completeOrders(int... orderIds) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.completeOrders(orderIds);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int cancelOrders(int... orderIds) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.cancelOrders(orderIds);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> getPendingOrders() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getPendingOrders();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> getCompletedOrders() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getCompletedOrders();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getPendingOrderCount() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getPendingOrderCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCompletedOrderCount() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getCompletedOrderCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Order findOrderById(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.findOrderById(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Order findCompletedOrderById(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.findCompletedOrderById(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getNextOrderPrepTime() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getNextOrderPrepTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SchedulingMode getSchedulingMode() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getSchedulingMode();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setSchedulingMode(SchedulingMode mode) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.setSchedulingMode(mode);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Order peekNextOrderToStart() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.peekNextOrderToStart();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Order pollNextOrderToStart() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.pollNextOrderToStart();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setCapacity(int scoopStations, long maxWaitMinutes, AdmissionDecision overloadDecision) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.setCapacity(scoopStations, maxWaitMinutes, overloadDecision);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getScoopStations() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getScoopStations();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public AdmissionResult quoteOrder(Order order) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.quoteOrder(order);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public AdmissionResult admitOrder(Order order) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.admitOrder(order);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getDeferredOrderCount() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getDeferredOrderCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isDeferred(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.isDeferred(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean advanceOrder(int orderId, OrderState next) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.advanceOrder(orderId, next);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean startOrder(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.startOrder(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean markOrderReady(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.markOrderReady(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getOrderCount(OrderState state) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getOrderCount(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns an immutable copy instead of a live view, since a live view
+     * could not be read safely while other terminals change the queue
+     */
+    @Override
+    public Collection<Order> getOrdersInState(OrderState state) {
+        lock.lock();
+        try {
+            drainInbox();
+            return new ArrayList<>(super.getOrdersInState(state));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public OrderState getOrderState(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getOrderState(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getTotalBacklogMinutes() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getTotalBacklogMinutes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getEstimatedWaitMinutes(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getEstimatedWaitMinutes(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public LocalTime getEstimatedReadyTime(int orderId) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getEstimatedReadyTime(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setCompletedRetention(int maxResidentOrders, long maxAgeMinutes, OrderArchive archive) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.setCompletedRetention(maxResidentOrders, maxAgeMinutes, archive);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getArchivedOrderCount() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getArchivedOrderCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> getCompletedOrders(int offset, int limit) throws IOException {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getCompletedOrders(offset, limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void forEachCompletedOrder(Consumer<Order> action) throws IOException {
+        lock.lock();
+        try {
+            drainInbox();
+            super.forEachCompletedOrder(action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns a copy of the matching orders, since a live view could not be
+     * read safely while other terminals change the queue
+     */
+    @Override
+    public Collection<Order> findByCustomer(String customerName, boolean completed) {
+        lock.lock();
+        try {
+            drainInbox();
+            return new ArrayList<>(super.findByCustomer(customerName, completed));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns a copy of the matching orders, since a live view could not be
+     * read safely while other terminals change the queue
+     */
+    @Override
+    public Collection<Order> findByFlavor(String flavorName, boolean completed) {
+        lock.lock();
+        try {
+            drainInbox();
+            return new ArrayList<>(super.findByFlavor(flavorName, completed));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns a copy of the matching orders, since a live view could not be
+     * read safely while other terminals change the queue
+     */
+    @Override
+    public Collection<Order> findBySize(String sizeName, boolean completed) {
+        lock.lock();
+        try {
+            drainInbox();
+            return new ArrayList<>(super.findBySize(sizeName, completed));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int countByCustomer(String customerName, boolean completed) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.countByCustomer(customerName, completed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int countByFlavor(String flavorName, boolean completed) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.countByFlavor(flavorName, completed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int countBySize(String sizeName, boolean completed) {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.countBySize(sizeName, completed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void loadOrders(Collection<Order> pending, Collection<Order> completed, Collection<Order> deferred) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.loadOrders(pending, completed, deferred);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SalesSummary getSalesSummary() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getSalesSummary();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns an immutable snapshot instead of a live view, since a live
+     * view could not be read safely while other terminals change the queue
+     */
+    @Override
+    public Collection<Order> getPendingOrdersView() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getPendingOrdersSnapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns an immutable snapshot instead of a live view, since a live
+     * view could not be read safely while other terminals change the queue
+     */
+    @Override
+    public Collection<Order> getCompletedOrdersView() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getCompletedOrdersSnapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns an immutable snapshot of every order held in memory (see
+     * OrderQueue.getSnapshot); only taking it holds the lock, so other threads can
+     * then read or save it without blocking order entry
+     */
+    @Override
+    public OrderQueueSnapshot getSnapshot() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getSnapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> getPendingOrdersSnapshot() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getPendingOrdersSnapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> getCompletedOrdersSnapshot() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.getCompletedOrdersSnapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void forEachPending(Consumer<Order> action) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.forEachPending(action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void forEachCompleted(Consumer<Order> action) {
+        lock.lock();
+        try {
+            drainInbox();
+            super.forEachCompleted(action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public JSONObject toJson() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.toJson();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            drainInbox();
+            return super.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // REQUIRES: the current thread holds lock
+    // MODIFIES: this
+    // EFFECTS: moves every order waiting in the inbox onto the pending queue
+    private void drainInbox() {
+        Order order = inbox.poll();
+        while (order != null) {
+            super.addOrder(order);
+            order = inbox.poll();
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package model;
 
-import java.util.Calendar;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Date;
 
 /**
  * Represents an alarm system event.
+ * An event is either a free-text message or a structured event: a type,
+ * an order ID and a numeric payload, described only when read. A batch
+ * event is a structured event about several orders at once.
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // wall-clock time captured once; later stamps add System.nanoTime() deltas to it
+    private static final long BASE_EPOCH_NANOS = System.currentTimeMillis() * NANOS_PER_MILLI;
+    private static final long BASE_NANO_TIME = System.nanoTime();
+    private static final int[] NO_ORDER_IDS = new int[0];
+    private final long timestampNanos;
+    private final EventType type;
+    private final int orderId;
+    private final long payload;
+    private final int[] batchOrderIds;
     private String description;
 	
     /**
@@ -17,23 +31,149 @@ public class Event {
      * @param description  a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(EventType.MESSAGE, 0, 0, description, nowEpochNanos());
+    }
+
+    /**
+     * Creates a structured event with the current date/time stamp.
+     * No text is built until the description is read.
+     * @param type  the kind of event
+     * @param orderId  the ID of the order the event is about
+     * @param payload  the number the event carries (see EventType)
+     */
+    public Event(EventType type, int orderId, long payload) {
+        this(type, orderId, payload, null, nowEpochNanos());
+    }
+
+    /**
+     * Creates a batch event about the given orders with the current date/time
+     * stamp. The payload is the number of orders. No text is built until the
+     * description is read.
+     * @param type  the kind of batch event
+     * @param orderIds  the IDs of the orders the event is about
+     */
+    public Event(EventType type, int[] orderIds) {
+        this(type, 0, orderIds.length, null, nowEpochNanos(), orderIds.clone());
+    }
+
+    /**
+     * Creates an event restored from storage, with the stamp it was logged with.
+     * @param type  the kind of event
+     * @param orderId  the ID of the order the event is about
+     * @param payload  the number the event carries (see EventType)
+     * @param description  the stored description, or null to build it from the type
+     * @param timestampNanos  the time the event was logged in epoch nanoseconds
+     */
+    public Event(EventType type, int orderId, long payload, String description, long timestampNanos) {
+        this(type, orderId, payload, description, timestampNanos, NO_ORDER_IDS);
+    }
+
+    private Event(EventType type, int orderId, long payload, String description, long timestampNanos,
+            int[] batchOrderIds) {
+        this.timestampNanos = timestampNanos;
+        this.type = type;
+        this.orderId = orderId;
+        this.payload = payload;
         this.description = description;
+        this.batchOrderIds = batchOrderIds;
     }
     
+    /**
+     * Gets the current time as nanoseconds since the epoch. The value is
+     * monotonic: it is the wall-clock time at class load plus the elapsed
+     * System.nanoTime(), so no calendar or time zone work is done per event.
+     * @return  the current time in epoch nanoseconds
+     */
+    static long nowEpochNanos() {
+        return BASE_EPOCH_NANOS + (System.nanoTime() - BASE_NANO_TIME);
+    }
+
     /**
      * Gets the date of this event (includes time).
-     * @return  the date of the event
+     * @return  the date of the event, to the millisecond
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(getTimestampMillis());
+    }
+
+    /**
+     * Gets the instant this event was logged.
+     * @return  the instant of the event, to the nanosecond
+     */
+    public Instant getInstant() {
+        return Instant.ofEpochSecond(timestampNanos / NANOS_PER_SECOND, timestampNanos % NANOS_PER_SECOND);
+    }
+
+    /**
+     * Gets the time this event was logged.
+     * @return  the time of the event in epoch milliseconds
+     */
+    public long getTimestampMillis() {
+        return timestampNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Gets the time this event was logged.
+     * @return  the time of the event in epoch nanoseconds
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Gets the kind of this event.
+     * @return  the type of the event, MESSAGE for free-text events
+     */
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the order this event is about.
+     * @return  the order ID, or 0 for free-text and batch events
+     */
+    public int getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the IDs of the orders a batch event is about.
+     * @return  a copy of the order IDs, or an empty array if this is not a
+     *          batch event
+     */
+    public int[] getOrderIds() {
+        return batchOrderIds.clone();
+    }
+
+    /**
+     * Gets the IDs of the orders a batch event is about, without copying them.
+     * @return  the order IDs, which must not be changed
+     */
+    int[] batchOrderIds() {
+        return batchOrderIds;
+    }
+
+    /**
+     * Gets the number this event carries (see EventType).
+     * @return  the payload, or 0 if the event carries none
+     */
+    public long getPayload() {
+        return payload;
     }
     
     /**
-     * Gets the description of this event.
+     * Gets the description of this event, building it on first use
+     * for structured events.
      * @return  the description of the event
      */
     public String getDescription() {
+        if (description == null) {
+            description = type.describe(orderId, payload);
+            if (batchOrderIds.length > 0) {
+                String ids = Arrays.toString(batchOrderIds);
+                description += " Order IDs: " + ids.substring(1, ids.length() - 1) + ".";
+            }
+        }
         return description;
     }
     
@@ -49,17 +189,18 @@ public class Event {
         
         Event otherEvent = (Event) other;
         
-        return (this.dateLogged.equals(otherEvent.dateLogged) 
-            && this.description.equals(otherEvent.description));
+        // compared to the millisecond, as when the stamp was a Date
+        return (this.getTimestampMillis() == otherEvent.getTimestampMillis()
+            && this.getDescription().equals(otherEvent.getDescription()));
     }
     
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(getTimestampMillis()) + getDescription().hashCode());
     }
     
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
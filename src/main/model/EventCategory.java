@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * Represents how important a kind of event is, which decides whether the
+ * EventLog keeps it (see EventLog.setSamplingRate)
+ */
+public enum EventCategory {
+    /** a change to an order or to the shop's settings, kept for the record */
+    AUDIT,
+    /** a read-only lookup or estimate, useful only when diagnosing a problem */
+    DIAGNOSTIC
+}
@@ -1,19 +1,52 @@
 package model;
 
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a log of alarm system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * The log is unbounded by default; with a capacity set it keeps only
+ * the most recent events in a fixed-size ring buffer.
+ * In asynchronous mode, logging threads only add events to a bounded
+ * buffer without locking; a background thread records them in the log
+ * and writes them to sinks.
+ * Events held in the log are indexed by order ID and by time bucket as
+ * they are recorded, so the history of one order or of a time range is
+ * found without walking the whole log.
+ * Each event category can be switched off or sampled (one in every N
+ * events kept); a structured event in a category that is off is dropped
+ * before it is even created.
  */
 public class EventLog implements Iterable<Event> {
     /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
+    private static final EventLog theLog = new EventLog();
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long TIME_BUCKET_NANOS = 10_000_000L;
     private Collection<Event> events;
+    private final Map<Integer, ArrayDeque<Event>> eventsByOrder = new HashMap<>();
+    private final NavigableMap<Long, ArrayDeque<Event>> eventsByTimeBucket = new TreeMap<>();
+    private Event[] ring;
+    private int head;
+    private int count;
+    private long droppedCount;
+    private volatile AsyncEventDrain drain;
+    private final AtomicBoolean shutdownHookAdded = new AtomicBoolean();
+    private volatile int[] samplingRates;
+    private final AtomicLong[] sampleCounters;
     
     /** 
      * Prevent external construction.
@@ -21,40 +54,410 @@ public class EventLog implements Iterable<Event> {
      */
     private EventLog() {
         events = new ArrayList<Event>();
+        samplingRates = new int[EventCategory.values().length];
+        sampleCounters = new AtomicLong[samplingRates.length];
+        for (int i = 0; i < samplingRates.length; i++) {
+            samplingRates[i] = 1;
+            sampleCounters[i] = new AtomicLong();
+        }
     }
     
     /**
-     * Gets instance of EventLog - creates it
-     * if it doesn't already exist.
+     * Gets instance of EventLog. The instance is created eagerly
+     * so that concurrent callers never race to create it.
      * (Singleton Design Pattern)
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
-        
         return theLog;
     }
     
     /**
-     * Adds an event to the event log.
+     * Adds an event to the event log, unless its category is switched
+     * off or it is not picked by the category's sampling rate. In bounded
+     * mode, once the log is full the oldest event is overwritten and
+     * counted as dropped. In asynchronous mode the event is handed to the
+     * background writer and appears in the log shortly afterwards (see flush).
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        if (shouldLog(e.getType())) {
+            dispatch(e);
+        }
+    }
+
+    /**
+     * Adds a structured event to the event log as logEvent(Event) does,
+     * creating the event only if its category keeps it, so logging an
+     * event whose category is off allocates nothing.
+     * @param type  the kind of event
+     * @param orderId  the ID of the order the event is about
+     * @param payload  the number the event carries (see EventType)
+     */
+    public void logEvent(EventType type, int orderId, long payload) {
+        if (shouldLog(type)) {
+            dispatch(new Event(type, orderId, payload));
+        }
+    }
+
+    /**
+     * Decides whether an event of the given kind should be logged now.
+     * With a sampling rate of N, every Nth call for the category returns true.
+     * @param type  the kind of event
+     * @return  true if the event's category is on and the event is sampled
+     */
+    public boolean shouldLog(EventType type) {
+        int category = type.getCategory().ordinal();
+        int rate = samplingRates[category];
+        return rate == 1 || (rate > 1 && sampleCounters[category].getAndIncrement() % rate == 0);
+    }
+
+    /**
+     * Sets how many events of a category are kept: 1 keeps every event,
+     * N keeps one in every N, and 0 switches the category off.
+     * Requires that oneInEvery >= 0.
+     * @param category  the category of events
+     * @param oneInEvery  the sampling rate
+     */
+    public synchronized void setSamplingRate(EventCategory category, int oneInEvery) {
+        int[] rates = samplingRates.clone();
+        rates[category.ordinal()] = oneInEvery;
+        sampleCounters[category.ordinal()].set(0);
+        samplingRates = rates;
+    }
+
+    /**
+     * Switches a category of events on (keeping every event) or off.
+     * @param category  the category of events
+     * @param enabled  true to keep the category's events
+     */
+    public void setCategoryEnabled(EventCategory category, boolean enabled) {
+        setSamplingRate(category, enabled ? 1 : 0);
+    }
+
+    /**
+     * @param category  the category of events
+     * @return  the sampling rate of the category (see setSamplingRate)
+     */
+    public int getSamplingRate(EventCategory category) {
+        return samplingRates[category.ordinal()];
+    }
+
+    /**
+     * @param category  the category of events
+     * @return  true if at least some events of the category are kept
+     */
+    public boolean isCategoryEnabled(EventCategory category) {
+        return getSamplingRate(category) > 0;
+    }
+
+    // EFFECTS: hands the given event to the background writer, or records it
+    // directly in synchronous mode
+    private void dispatch(Event e) {
+        AsyncEventDrain current = drain;
+        if (current == null || !current.offer(e)) {
+            record(e);
+        }
+    }
+
+    /**
+     * Records a batch of events taken from the asynchronous buffer.
+     * @param batch  the events to record, oldest first
+     */
+    synchronized void record(List<Event> batch) {
+        for (Event e : batch) {
+            record(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores the given event, overwriting the oldest one if the ring
+    // buffer is full
+    private synchronized void record(Event e) {
+        if (ring == null) {
+            events.add(e);
+        } else if (count < ring.length) {
+            ring[(head + count) % ring.length] = e;
+            count++;
+        } else {
+            unindex(ring[head]);
+            ring[head] = e;
+            head = (head + 1) % ring.length;
+            droppedCount++;
+        }
+        index(e);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given event to the order and time bucket indexes; a batch
+    // event is indexed under each of its orders
+    private void index(Event e) {
+        if (e.getOrderId() > 0) {
+            eventsByOrder.computeIfAbsent(e.getOrderId(), id -> new ArrayDeque<>()).addLast(e);
+        }
+        for (int orderId : e.batchOrderIds()) {
+            eventsByOrder.computeIfAbsent(orderId, id -> new ArrayDeque<>()).addLast(e);
+        }
+        eventsByTimeBucket.computeIfAbsent(timeBucket(e.getTimestampNanos()), b -> new ArrayDeque<>()).addLast(e);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given event, the oldest one held, from the indexes;
+    // it is the first event in each index entry it belongs to
+    private void unindex(Event e) {
+        if (e.getOrderId() > 0) {
+            removeFirst(eventsByOrder, e.getOrderId());
+        }
+        for (int orderId : e.batchOrderIds()) {
+            removeFirst(eventsByOrder, orderId);
+        }
+        removeFirst(eventsByTimeBucket, timeBucket(e.getTimestampNanos()));
+    }
+
+    // MODIFIES: index
+    // EFFECTS: removes the first event stored under the given key, and the key
+    // once it has no events left
+    private static <K> void removeFirst(Map<K, ArrayDeque<Event>> index, K key) {
+        ArrayDeque<Event> entry = index.get(key);
+        entry.pollFirst();
+        if (entry.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // EFFECTS: returns the time bucket holding the given epoch-nanos stamp
+    private static long timeBucket(long epochNanos) {
+        return Math.floorDiv(epochNanos, TIME_BUCKET_NANOS);
     }
     
     /**
-     * Clears the event log and logs the event.
+     * Clears the event log and the dropped event count, and logs the event.
+     * The event is logged after the log's lock is released, so a full
+     * asynchronous buffer never blocks a thread that holds the lock.
      */
     public void clear() {
-        events.clear();
+        synchronized (this) {
+            events.clear();
+            eventsByOrder.clear();
+            eventsByTimeBucket.clear();
+            if (ring != null) {
+                ring = new Event[ring.length];
+            }
+            head = 0;
+            count = 0;
+            droppedCount = 0;
+        }
         logEvent(new Event("Event log cleared."));
     }
+
+    /**
+     * Sets how many events the log keeps. A positive capacity switches
+     * to bounded mode, keeping the most recent events already logged
+     * (older ones count as dropped); 0 switches back to an unbounded log.
+     * The kept events are stored again in place and are not sent to the
+     * sinks a second time.
+     * @param capacity  the maximum number of events kept, or 0 for no limit
+     */
+    public synchronized void setCapacity(int capacity) {
+        List<Event> kept = copyEvents();
+        int start = capacity > 0 ? Math.max(0, kept.size() - capacity) : 0;
+        droppedCount += start;
+        events.clear();
+        eventsByOrder.clear();
+        eventsByTimeBucket.clear();
+        ring = capacity > 0 ? new Event[capacity] : null;
+        head = 0;
+        count = 0;
+        for (Event e : kept.subList(start, kept.size())) {
+            record(e);
+        }
+    }
+
+    /**
+     * Switches the log to asynchronous mode: logging threads add events
+     * to a bounded buffer without locking, and one background thread
+     * records them and writes them, in batches, to the given sinks.
+     * Events still buffered when the program exits are flushed first.
+     * Requires that the log is not already asynchronous.
+     * @param bufferCapacity  the number of events the buffer holds
+     *                        (rounded up to a power of two)
+     * @param policy  what to do with an event when the buffer is full
+     * @param sinks  the destinations events are written to
+     */
+    public synchronized void startAsync(int bufferCapacity, EventOverflowPolicy policy, List<EventSink> sinks) {
+        int capacity = Integer.highestOneBit(Math.max(1, bufferCapacity - 1)) << 1;
+        AsyncEventDrain started = new AsyncEventDrain(capacity, policy, sinks, this);
+        started.start();
+        drain = started;
+        if (shutdownHookAdded.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::stopAsync, "event-log-shutdown"));
+        }
+    }
+
+    /**
+     * Switches the log back to synchronous mode, first delivering every
+     * buffered event and then closing the sinks. Events logged while the
+     * writer is stopping are recorded directly in the log instead of being
+     * lost. Does nothing if the log is not asynchronous.
+     */
+    public void stopAsync() {
+        AsyncEventDrain current;
+        synchronized (this) {
+            current = drain;
+            drain = null;
+        }
+        if (current != null) {
+            current.stop();
+        }
+    }
+
+    /**
+     * Waits until every event logged before the call has been recorded
+     * and written to the sinks. Returns at once in synchronous mode.
+     */
+    public void flush() {
+        AsyncEventDrain current = drain;
+        if (current != null) {
+            current.awaitDelivered();
+        }
+    }
+
+    /**
+     * @return  true if the log is in asynchronous mode
+     */
+    public boolean isAsync() {
+        return drain != null;
+    }
+
+    /**
+     * @return  the number of events waiting in the asynchronous buffer,
+     *          or 0 in synchronous mode
+     */
+    public int getQueueDepth() {
+        AsyncEventDrain current = drain;
+        return current == null ? 0 : current.depth();
+    }
+
+    /**
+     * @return  the largest number of events seen waiting in the
+     *          asynchronous buffer since it was started, or 0
+     */
+    public int getPeakQueueDepth() {
+        AsyncEventDrain current = drain;
+        return current == null ? 0 : current.peakDepth();
+    }
+
+    /**
+     * @return  the number of events discarded because the asynchronous
+     *          buffer was full (DROP policy) since it was started, or 0
+     */
+    public long getRejectedEventCount() {
+        AsyncEventDrain current = drain;
+        return current == null ? 0 : current.rejectedCount();
+    }
+
+    /**
+     * @return  the number of times a sink failed to write a batch since
+     *          the asynchronous mode was started, or 0
+     */
+    public long getSinkFailureCount() {
+        AsyncEventDrain current = drain;
+        return current == null ? 0 : current.sinkFailureCount();
+    }
+
+    /**
+     * Gets the capacity of the log.
+     * @return  the maximum number of events kept, or 0 if unbounded
+     */
+    public synchronized int getCapacity() {
+        return ring == null ? 0 : ring.length;
+    }
+
+    /**
+     * Gets the number of events currently held in the log.
+     * @return  the number of events held
+     */
+    public synchronized int size() {
+        return ring == null ? events.size() : count;
+    }
+
+    /**
+     * Gets the number of events overwritten or discarded to stay within
+     * the capacity since the log was last cleared.
+     * @return  the number of dropped events
+     */
+    public synchronized long getDroppedEventCount() {
+        return droppedCount;
+    }
     
+    /**
+     * Gets the events held in the log about the given order, such as it
+     * being added, found, moved or cancelled. Takes time proportional to
+     * the number of events returned. Batch events about the order are
+     * included; free-text events are not.
+     * @param orderId  the ID of the order
+     * @return  the order's events, oldest first
+     */
+    public synchronized List<Event> eventsForOrder(int orderId) {
+        ArrayDeque<Event> found = eventsByOrder.get(orderId);
+        return found == null ? new ArrayList<Event>() : new ArrayList<Event>(found);
+    }
+
+    /**
+     * Gets the events held in the log that were logged in the given time
+     * range. Only the time buckets overlapping the range are visited, so
+     * this takes time proportional to the number of events returned.
+     * @param from  the start of the range (inclusive)
+     * @param to  the end of the range (exclusive)
+     * @return  the events in the range, in time order
+     */
+    public synchronized List<Event> eventsBetween(Instant from, Instant to) {
+        long fromNanos = toEpochNanos(from);
+        long toNanos = toEpochNanos(to);
+        List<Event> found = new ArrayList<Event>();
+        if (fromNanos >= toNanos) {
+            return found;
+        }
+        for (ArrayDeque<Event> bucket : eventsByTimeBucket.subMap(timeBucket(fromNanos), true,
+                timeBucket(toNanos - 1), true).values()) {
+            for (Event e : bucket) {
+                if (e.getTimestampNanos() >= fromNanos && e.getTimestampNanos() < toNanos) {
+                    found.add(e);
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(Event::getTimestampNanos));
+        return found;
+    }
+
+    // EFFECTS: returns the given instant in epoch nanoseconds, clamped to the
+    // range of a long
+    private static long toEpochNanos(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Iterates over the events logged so far, oldest first. The iterator
+     * works on a copy, so events logged concurrently do not disturb it.
+     */
     @Override
-    public Iterator<Event> iterator() {
-        return events.iterator();
+    public synchronized Iterator<Event> iterator() {
+        return copyEvents().iterator();
+    }
+
+    // EFFECTS: returns a new list of the events held, oldest first
+    private List<Event> copyEvents() {
+        if (ring == null) {
+            return new ArrayList<Event>(events);
+        }
+        List<Event> copy = new ArrayList<Event>(count);
+        for (int i = 0; i < count; i++) {
+            copy.add(ring[(head + i) % ring.length]);
+        }
+        return copy;
     }
 }
@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * Represents what an asynchronous EventLog does with a new event when its
+ * buffer is full (see EventLog.startAsync)
+ */
+public enum EventOverflowPolicy {
+    /** the logging thread waits until the background writer frees space */
+    BLOCK,
+    /** the event is discarded and counted (see EventLog.getRejectedEventCount) */
+    DROP
+}
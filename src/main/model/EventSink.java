@@ -0,0 +1,26 @@
+package model;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Represents a destination that an asynchronous EventLog's background writer
+ * sends logged events to, in batches
+ */
+public interface EventSink {
+
+    /**
+     * REQUIRES: events is not empty
+     * MODIFIES: this
+     * EFFECTS: writes the given events, oldest first; throws IOException if they
+     * cannot be written
+     */
+    void write(List<Event> events) throws IOException;
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: releases any resources held; throws IOException if buffered events
+     * cannot be written
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,98 @@
+package model;
+
+/**
+ * Represents the kinds of events logged by the order system. Each kind knows
+ * how to describe an event from its order ID and numeric payload, so the text
+ * is only built when someone reads it. Each kind belongs to an EventCategory,
+ * which the EventLog can switch off or sample. The event journal stores types by
+ * ordinal, so new types go at the end.
+ */
+public enum EventType {
+    /** free-text event; the description is given when it is logged */
+    MESSAGE((id, n) -> "", false),
+    ORDER_ADDED((id, n) -> "Order with ID " + id + " was added to the queue."),
+    COMPLETED_ORDER_ADDED((id, n) -> "Completed order with ID " + id + " was added to completed orders."),
+    ORDER_DEFERRED((id, n) -> "Order with ID " + id + " was deferred."),
+    ORDER_REJECTED((id, n) -> "Order with ID " + id + " was rejected."),
+    DEFERRED_ORDER_ADDED((id, n) -> "Deferred order with ID " + id + " was added to the queue."),
+    ORDER_FOUND((id, n) -> "Order with ID " + id + " was found in the queue.", EventCategory.DIAGNOSTIC),
+    ORDER_NOT_FOUND((id, n) -> "Order with ID " + id + " was not found in the queue.", EventCategory.DIAGNOSTIC),
+    /** payload: the topping's MenuCatalog number */
+    TOPPING_ADDED((id, n) -> "Topping " + MenuCatalog.toppingAt((int) n).getName() + " was added to order #"
+            + id + ".", false),
+    ORDER_MARKED_COMPLETED((id, n) -> "Order #" + id + " was marked as completed."),
+    ORDER_COMPLETED((id, n) -> "Order with ID " + id + " was completed."),
+    ORDER_CANCELLED((id, n) -> "Order with ID " + id + " was cancelled."),
+    /** payload: the ordinal of the OrderState the order moved to */
+    ORDER_MOVED((id, n) -> "Order #" + id + " moved to " + OrderState.values()[(int) n] + "."),
+    ORDER_NOT_ARCHIVED((id, n) -> "Order #" + id + " could not be archived and was kept in memory."),
+    /** payload: the estimated preparation time in minutes */
+    PREP_TIME_ESTIMATED((id, n) -> "Estimated prep time for next order is " + n + " minutes.",
+            EventCategory.DIAGNOSTIC),
+    NO_PENDING_ORDERS((id, n) -> "No pending orders.", EventCategory.DIAGNOSTIC),
+    /** batch event; payload: the number of orders, whose IDs the event lists */
+    ORDERS_ADDED((id, n) -> ordersWere(n) + " added to the queue.", false),
+    /** batch event; payload: the number of orders, whose IDs the event lists */
+    ORDERS_COMPLETED((id, n) -> ordersWere(n) + " completed.", false),
+    /** batch event; payload: the number of orders, whose IDs the event lists */
+    ORDERS_CANCELLED((id, n) -> ordersWere(n) + " cancelled.", false);
+
+    private final Describer describer;
+    private final boolean portable;
+    private final EventCategory category;
+
+    EventType(Describer describer) {
+        this(describer, true, EventCategory.AUDIT);
+    }
+
+    EventType(Describer describer, boolean portable) {
+        this(describer, portable, EventCategory.AUDIT);
+    }
+
+    EventType(Describer describer, EventCategory category) {
+        this(describer, true, category);
+    }
+
+    EventType(Describer describer, boolean portable, EventCategory category) {
+        this.describer = describer;
+        this.portable = portable;
+        this.category = category;
+    }
+
+    /**
+     * EFFECTS: returns the category events of this kind belong to
+     */
+    public EventCategory getCategory() {
+        return category;
+    }
+
+    /**
+     * EFFECTS: returns true if an event of this kind can be described from its
+     * order ID and payload in any run of the program; false if its description
+     * must be stored with it (free text, or a payload only meaningful in the
+     * run that logged it)
+     */
+    public boolean hasPortablePayload() {
+        return portable;
+    }
+
+    /**
+     * EFFECTS: returns the description of an event of this kind with the given
+     * order ID and payload
+     */
+    String describe(int orderId, long payload) {
+        return describer.describe(orderId, payload);
+    }
+
+    // EFFECTS: returns the start of a sentence about the given number of orders
+    private static String ordersWere(long count) {
+        return count == 1 ? "1 order was" : count + " orders were";
+    }
+
+    /**
+     * Represents a way of turning an event's order ID and payload into text
+     */
+    private interface Describer {
+        String describe(int orderId, long payload);
+    }
+}
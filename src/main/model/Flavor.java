@@ -7,9 +7,9 @@ import persistence.Writable;
  * Represents an ice cream flavor available in the shop
  */
 public class Flavor implements Writable {
-    private String name;
-    private double price;
-    private boolean isAvailable;
+    private final String name;
+    private final double price;
+    private final long priceCents;
 
     /**
      * REQUIRES: flavorName has non-zero length and price >= 0
@@ -18,7 +18,7 @@ public class Flavor implements Writable {
     public Flavor(String flavorName, double price) {
         this.name = flavorName;
         this.price = price;
-        this.isAvailable = true;
+        this.priceCents = Math.round(price * 100);
     }
 
     /**
@@ -36,18 +36,18 @@ public class Flavor implements Writable {
     }
 
     /**
-     * EFFECTS: returns true if this flavor is available, false otherwise
+     * EFFECTS: returns the price of this flavor in whole cents, rounded half up
      */
-    public boolean isAvailable() {
-        return isAvailable;
+    public long getPriceCents() {
+        return priceCents;
     }
 
     /**
-     * MODIFIES: this
-     * EFFECTS: sets the availability of this flavor
+     * EFFECTS: returns true unless the shared MenuCatalog has marked this flavor
+     * unavailable (see MenuCatalog.setAvailable)
      */
-    public void setAvailable(boolean available) {
-        this.isAvailable = available;
+    public boolean isAvailable() {
+        return MenuCatalog.getInstance().isAvailable(this);
     }
 
     @Override
@@ -55,15 +55,36 @@ public class Flavor implements Writable {
         JSONObject json = new JSONObject();
         json.put("name", name);
         json.put("price", price);
-        json.put("isAvailable", isAvailable);
+        json.put("isAvailable", isAvailable());
         return json;
     }
 
+    /**
+     * EFFECTS: returns true if o is a flavor with the same name and price (to the
+     * hundredth); availability is not compared
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Flavor)) {
+            return false;
+        }
+        Flavor other = (Flavor) o;
+        return priceCents == other.priceCents && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + Long.hashCode(priceCents);
+    }
+
     /**
      * EFFECTS: returns a string representation of this flavor
      */
     @Override
     public String toString() {
-        return name + " ($" + String.format("%.2f", price) + ")";
+        return name + " ($" + Money.formatDollars(priceCents) + ")";
     }
 }
\ No newline at end of file
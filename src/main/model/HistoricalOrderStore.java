@@ -0,0 +1,273 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a compact, append-only store of historical orders for reporting.
+ * Each order is kept as one row of primitive columns held in off-heap memory
+ * (order ID, customer, flavor, size, topping mask, total in cents and completion
+ * time); customer names, flavors and sizes are stored once each in dictionaries
+ * and referred to by number. Scans and aggregates read the columns directly and
+ * never create Order objects. Not safe for use by several threads at once.
+ */
+public final class HistoricalOrderStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // flavor and size codes are stored as shorts
+    private static final int MAX_SHORT_CODES = Short.MAX_VALUE + 1;
+
+    private final Dictionary<String> customers = new Dictionary<>("customers", Integer.MAX_VALUE);
+    private final Dictionary<Flavor> flavors = new Dictionary<>("flavors", MAX_SHORT_CODES);
+    private final Dictionary<Size> sizes = new Dictionary<>("sizes", MAX_SHORT_CODES);
+    private int size;
+    private int capacity;
+    private ByteBuffer orderIds;      // int per row
+    private ByteBuffer customerCodes; // int per row
+    private ByteBuffer flavorCodes;   // short per row
+    private ByteBuffer sizeCodes;     // short per row
+    private ByteBuffer toppingMasks;  // long per row
+    private ByteBuffer totalCents;    // long per row
+    private ByteBuffer completedAt;   // long per row, epoch millis
+
+    /**
+     * EFFECTS: creates an empty store
+     */
+    public HistoricalOrderStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * EFFECTS: returns the number of orders in this store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * REQUIRES: order is not null
+     * MODIFIES: this
+     * EFFECTS: appends the given order as a new row; the order itself is not kept.
+     * Throws IllegalStateException, adding no row, if the order's toppings do not
+     * fit in a topping mask or its flavor or size would need a code past
+     * Short.MAX_VALUE.
+     */
+    public void add(Order order) {
+        long toppingMask = order.getToppingMask();
+        short flavorCode = (short) flavors.encode(order.getFlavor());
+        short sizeCode = (short) sizes.encode(order.getSize());
+        if (size == capacity) {
+            allocate(capacity * 2);
+        }
+        int row = size++;
+        orderIds.putInt(row * Integer.BYTES, order.getOrderId());
+        customerCodes.putInt(row * Integer.BYTES, customers.encode(order.getCustomerName()));
+        flavorCodes.putShort(row * Short.BYTES, flavorCode);
+        sizeCodes.putShort(row * Short.BYTES, sizeCode);
+        toppingMasks.putLong(row * Long.BYTES, toppingMask);
+        totalCents.putLong(row * Long.BYTES, order.getTotalPriceCents());
+        completedAt.putLong(row * Long.BYTES, order.getCompletedAtMillis());
+    }
+
+    /**
+     * REQUIRES: 0 <= row < size()
+     * EFFECTS: returns the order ID stored in the given row
+     */
+    public int getOrderId(int row) {
+        return orderIds.getInt(row * Integer.BYTES);
+    }
+
+    /**
+     * REQUIRES: 0 <= row < size()
+     * EFFECTS: returns the customer name stored in the given row
+     */
+    public String getCustomerName(int row) {
+        return customers.decode(customerCodes.getInt(row * Integer.BYTES));
+    }
+
+    /**
+     * REQUIRES: 0 <= row < size()
+     * EFFECTS: returns the flavor stored in the given row
+     */
+    public Flavor getFlavor(int row) {
+        return flavors.decode(flavorCodes.getShort(row * Short.BYTES));
+    }
+
+    /**
+     * REQUIRES: 0 <= row < size()
+     * EFFECTS: returns the size stored in the given row
+     */
+    public Size getSize(int row) {
+        return sizes.decode(sizeCodes.getShort(row * Short.BYTES));
+    }
+
+    /**
+     * REQUIRES: 0 <= row < size()
+     * EFFECTS: returns the topping mask stored in the given row (see
+     * Order.getToppingMask)
+     */
+    public long getToppingMask(int row) {
+        return toppingMasks.getLong(row * Long.BYTES);
+    }
+
+    /**
+     * REQUIRES: 0 <= row < size()
+     * EFFECTS: returns the order total, in cents, stored in the given row
+     */
+    public long getTotalCents(int row) {
+        return totalCents.getLong(row * Long.BYTES);
+    }
+
+    /**
+     * REQUIRES: 0 <= row < size()
+     * EFFECTS: returns the completion time, in epoch milliseconds, stored in the
+     * given row
+     */
+    public long getCompletedAtMillis(int row) {
+        return completedAt.getLong(row * Long.BYTES);
+    }
+
+    /**
+     * EFFECTS: returns the total revenue, in cents, of the orders completed at or
+     * after fromMillis and before toMillis
+     */
+    public long getRevenueCents(long fromMillis, long toMillis) {
+        long revenue = 0;
+        for (int row = 0; row < size; row++) {
+            long time = completedAt.getLong(row * Long.BYTES);
+            if (time >= fromMillis && time < toMillis) {
+                revenue += totalCents.getLong(row * Long.BYTES);
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * EFFECTS: returns the total revenue, in cents, of the orders for each flavor
+     * name
+     */
+    public Map<String, Long> getRevenueByFlavor() {
+        long[] byCode = new long[flavors.size()];
+        for (int row = 0; row < size; row++) {
+            byCode[flavorCodes.getShort(row * Short.BYTES)] += totalCents.getLong(row * Long.BYTES);
+        }
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < byCode.length; code++) {
+            result.merge(flavors.decode(code).getName(), byCode[code], Long::sum);
+        }
+        return result;
+    }
+
+    /**
+     * REQUIRES: topping is not null
+     * EFFECTS: returns the number of orders that include the given topping
+     */
+    public int countWithTopping(Topping topping) {
+        int ordinal = MenuCatalog.findOrdinal(topping);
+        if (ordinal < 0 || ordinal >= Long.SIZE) {
+            return 0;
+        }
+        long bit = 1L << ordinal;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if ((toppingMasks.getLong(row * Long.BYTES) & bit) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * EFFECTS: returns the number of orders placed by the given customer (matched
+     * exactly)
+     */
+    public int countByCustomer(String customerName) {
+        int code = customers.find(customerName);
+        int count = 0;
+        for (int row = 0; code >= 0 && row < size; row++) {
+            if (customerCodes.getInt(row * Integer.BYTES) == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves every column into new off-heap buffers with room for the given
+    // number of rows
+    private void allocate(int newCapacity) {
+        orderIds = grow(orderIds, newCapacity, Integer.BYTES);
+        customerCodes = grow(customerCodes, newCapacity, Integer.BYTES);
+        flavorCodes = grow(flavorCodes, newCapacity, Short.BYTES);
+        sizeCodes = grow(sizeCodes, newCapacity, Short.BYTES);
+        toppingMasks = grow(toppingMasks, newCapacity, Long.BYTES);
+        totalCents = grow(totalCents, newCapacity, Long.BYTES);
+        completedAt = grow(completedAt, newCapacity, Long.BYTES);
+        capacity = newCapacity;
+    }
+
+    // EFFECTS: returns a new off-heap buffer with room for newCapacity values of the
+    // given width, holding a copy of the first size values of old (if not null)
+    private ByteBuffer grow(ByteBuffer old, int newCapacity, int width) {
+        ByteBuffer column = ByteBuffer.allocateDirect(newCapacity * width).order(ByteOrder.nativeOrder());
+        if (old != null) {
+            ByteBuffer used = old.duplicate();
+            used.position(0).limit(size * width);
+            column.put(used);
+            column.clear();
+        }
+        return column;
+    }
+
+    /**
+     * Represents a table that numbers distinct values in the order first seen
+     */
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+        private final String kind;
+        private final int maxCodes;
+
+        // EFFECTS: creates an empty table of the given kind of values that numbers
+        // at most maxCodes of them
+        Dictionary(String kind, int maxCodes) {
+            this.kind = kind;
+            this.maxCodes = maxCodes;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the number of the given value, numbering it if new;
+        // throws IllegalStateException if it is new and maxCodes values are numbered
+        int encode(T value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (values.size() == maxCodes) {
+                    throw new IllegalStateException("Cannot number more than " + maxCodes + " " + kind);
+                }
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        // EFFECTS: returns the number of the given value, or -1 if it is unknown
+        int find(T value) {
+            return codes.getOrDefault(value, -1);
+        }
+
+        // EFFECTS: returns the value with the given number
+        T decode(int code) {
+            return values.get(code);
+        }
+
+        // EFFECTS: returns how many values have been numbered
+        int size() {
+            return values.size();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the shop's menu and the registry of every flavor, topping and size
+ * known to the system. Each menu item is held as one canonical instance, so all
+ * orders for the same item share it instead of holding their own copy. We use
+ * the Singleton Design Pattern so that the user interfaces and the JSON reader
+ * all resolve menu items through the same catalog. Menu items themselves are
+ * immutable; the catalog records which of them are currently unavailable.
+ */
+public final class MenuCatalog {
+    /** the shared catalog, holding the standard menu (Singleton Design Pattern) */
+    private static final MenuCatalog theCatalog = createStandardCatalog();
+    // orders store topping numbers as shorts
+    private static final int MAX_TOPPING_ORDINALS = Short.MAX_VALUE + 1;
+    private final Map<String, Flavor> flavors;
+    private final Map<String, Topping> toppings;
+    private final Map<String, Size> sizes;
+    private final List<Flavor> menuFlavors;
+    private final List<Topping> menuToppings;
+    private final List<Size> menuSizes;
+    private final Set<Flavor> unavailableFlavors;
+    private final Set<Topping> unavailableToppings;
+    private volatile Topping[] toppingsByOrdinal;
+
+    /**
+     * EFFECTS: creates an empty catalog (the shared catalog is obtained through
+     * getInstance)
+     */
+    MenuCatalog() {
+        flavors = new HashMap<>();
+        toppings = new HashMap<>();
+        sizes = new HashMap<>();
+        menuFlavors = new ArrayList<>();
+        menuToppings = new ArrayList<>();
+        menuSizes = new ArrayList<>();
+        unavailableFlavors = new HashSet<>();
+        unavailableToppings = new HashSet<>();
+        toppingsByOrdinal = new Topping[0];
+    }
+
+    /**
+     * EFFECTS: returns the shared catalog, which starts out holding the standard
+     * menu (Singleton Design Pattern)
+     */
+    public static MenuCatalog getInstance() {
+        return theCatalog;
+    }
+
+    /**
+     * REQUIRES: name has non-zero length and price >= 0
+     * MODIFIES: this
+     * EFFECTS: returns the catalog's flavor with the given name and price (to the
+     * cent), registering a new one, not on the menu, if there is none yet
+     */
+    public synchronized Flavor getFlavor(String name, double price) {
+        return flavors.computeIfAbsent(key(name, price), k -> new Flavor(name, price));
+    }
+
+    /**
+     * REQUIRES: name has non-zero length and price >= 0
+     * MODIFIES: this
+     * EFFECTS: returns the catalog's topping with the given name and price (to the
+     * cent), registering a new one, not on the menu, if there is none yet
+     */
+    public synchronized Topping getTopping(String name, double price) {
+        return toppings.computeIfAbsent(key(name, price), k -> new Topping(name, price));
+    }
+
+    /**
+     * REQUIRES: name has non-zero length and multiplier > 0
+     * MODIFIES: this
+     * EFFECTS: returns the catalog's size with the given name and price multiplier
+     * (to the hundredth), registering a new one, not on the menu, if there is none
+     * yet
+     */
+    public synchronized Size getSize(String name, double multiplier) {
+        return sizes.computeIfAbsent(key(name, multiplier), k -> new Size(name, multiplier));
+    }
+
+    /**
+     * REQUIRES: same as getFlavor
+     * MODIFIES: this
+     * EFFECTS: puts the catalog's flavor with the given name and price on the menu,
+     * unless it is already there, and returns it
+     */
+    public synchronized Flavor addFlavor(String name, double price) {
+        return addToMenu(menuFlavors, getFlavor(name, price));
+    }
+
+    /**
+     * REQUIRES: same as getTopping
+     * MODIFIES: this
+     * EFFECTS: puts the catalog's topping with the given name and price on the
+     * menu, unless it is already there, and returns it
+     */
+    public synchronized Topping addTopping(String name, double price) {
+        return addToMenu(menuToppings, getTopping(name, price));
+    }
+
+    /**
+     * REQUIRES: same as getSize
+     * MODIFIES: this
+     * EFFECTS: puts the catalog's size with the given name and multiplier on the
+     * menu, unless it is already there, and returns it
+     */
+    public synchronized Size addSize(String name, double multiplier) {
+        return addToMenu(menuSizes, getSize(name, multiplier));
+    }
+
+    /**
+     * EFFECTS: returns the flavors on the menu, in the order they were added
+     */
+    public synchronized List<Flavor> getFlavors() {
+        return Collections.unmodifiableList(new ArrayList<>(menuFlavors));
+    }
+
+    /**
+     * EFFECTS: returns the toppings on the menu, in the order they were added
+     */
+    public synchronized List<Topping> getToppings() {
+        return Collections.unmodifiableList(new ArrayList<>(menuToppings));
+    }
+
+    /**
+     * EFFECTS: returns the sizes on the menu, in the order they were added
+     */
+    public synchronized List<Size> getSizes() {
+        return Collections.unmodifiableList(new ArrayList<>(menuSizes));
+    }
+
+    /**
+     * REQUIRES: flavor is not null
+     * MODIFIES: this
+     * EFFECTS: marks the given flavor, and every flavor equal to it, as available
+     * or not
+     */
+    public synchronized void setAvailable(Flavor flavor, boolean available) {
+        setAvailable(unavailableFlavors, flavor, available);
+    }
+
+    /**
+     * REQUIRES: topping is not null
+     * MODIFIES: this
+     * EFFECTS: marks the given topping, and every topping equal to it, as
+     * available or not
+     */
+    public synchronized void setAvailable(Topping topping, boolean available) {
+        setAvailable(unavailableToppings, topping, available);
+    }
+
+    /**
+     * REQUIRES: flavor is not null
+     * EFFECTS: returns true unless the given flavor has been marked unavailable
+     */
+    public synchronized boolean isAvailable(Flavor flavor) {
+        return !unavailableFlavors.contains(flavor);
+    }
+
+    /**
+     * REQUIRES: topping is not null
+     * EFFECTS: returns true unless the given topping has been marked unavailable
+     */
+    public synchronized boolean isAvailable(Topping topping) {
+        return !unavailableToppings.contains(topping);
+    }
+
+    /**
+     * REQUIRES: topping is not null
+     * MODIFIES: getInstance(), topping
+     * EFFECTS: returns the small number that identifies the given topping (or the
+     * shared catalog's equal instance), assigning the next free one on first use;
+     * orders store toppings as these numbers. Throws IllegalStateException if the
+     * topping is new and every number up to Short.MAX_VALUE is taken.
+     */
+    static int ordinalOf(Topping topping) {
+        int ordinal = topping.ordinal;
+        if (ordinal >= 0 && theCatalog.toppingsByOrdinal[ordinal] == topping) {
+            return ordinal;
+        }
+        return theCatalog.assignOrdinal(topping);
+    }
+
+    /**
+     * REQUIRES: topping is not null
+     * EFFECTS: returns the number of the shared catalog's topping equal to the
+     * given one, or -1 if no equal topping has been numbered; unlike ordinalOf it
+     * never registers the topping, so read-only queries can use it
+     */
+    static int findOrdinal(Topping topping) {
+        int ordinal = topping.ordinal;
+        if (ordinal >= 0 && theCatalog.toppingsByOrdinal[ordinal] == topping) {
+            return ordinal;
+        }
+        return theCatalog.lookupOrdinal(topping);
+    }
+
+    /**
+     * REQUIRES: 0 <= ordinal and ordinal was returned by ordinalOf
+     * EFFECTS: returns the shared catalog's topping with the given number; does
+     * not lock
+     */
+    static Topping toppingAt(int ordinal) {
+        return theCatalog.toppingsByOrdinal[ordinal];
+    }
+
+    // EFFECTS: returns the number of the known topping equal to the given one, or
+    // -1 if there is none or it has no number yet
+    private synchronized int lookupOrdinal(Topping topping) {
+        Topping canonical = toppings.get(key(topping.getName(), topping.getPrice()));
+        return canonical == null ? -1 : canonical.ordinal;
+    }
+
+    // MODIFIES: this, topping
+    // EFFECTS: registers the given topping if no equal one is known, numbers the
+    // catalog's instance if it has no number yet, and returns its number
+    private synchronized int assignOrdinal(Topping topping) {
+        Topping canonical = toppings.computeIfAbsent(key(topping.getName(), topping.getPrice()), k -> topping);
+        if (canonical.ordinal < 0) {
+            if (toppingsByOrdinal.length == MAX_TOPPING_ORDINALS) {
+                throw new IllegalStateException("Cannot number more than " + MAX_TOPPING_ORDINALS + " toppings");
+            }
+            Topping[] table = Arrays.copyOf(toppingsByOrdinal, toppingsByOrdinal.length + 1);
+            canonical.ordinal = table.length - 1;
+            table[canonical.ordinal] = canonical;
+            toppingsByOrdinal = table;
+        }
+        return canonical.ordinal;
+    }
+
+    // MODIFIES: unavailable
+    // EFFECTS: removes item from the unavailable items if available, adds it otherwise
+    private static <T> void setAvailable(Set<T> unavailable, T item, boolean available) {
+        if (available) {
+            unavailable.remove(item);
+        } else {
+            unavailable.add(item);
+        }
+    }
+
+    // MODIFIES: menu
+    // EFFECTS: appends item to menu unless it is already there, and returns it
+    private static <T> T addToMenu(List<T> menu, T item) {
+        if (!menu.contains(item)) {
+            menu.add(item);
+        }
+        return item;
+    }
+
+    // EFFECTS: returns the key identifying a menu item by name and by amount in
+    // hundredths (cents for prices, percent for multipliers)
+    private static String key(String name, double amount) {
+        return name + "@" + Math.round(amount * 100);
+    }
+
+    // EFFECTS: returns a catalog holding the standard menu
+    private static MenuCatalog createStandardCatalog() {
+        MenuCatalog catalog = new MenuCatalog();
+        catalog.addFlavor("Vanilla", 3.50);
+        catalog.addFlavor("Chocolate", 4.00);
+        catalog.addFlavor("Strawberry", 3.75);
+        catalog.addFlavor("Mint Chocolate Chip", 4.25);
+        catalog.addFlavor("Cookie Dough", 4.50);
+        catalog.addTopping("Sprinkles", 0.50);
+        catalog.addTopping("Marshmallow", 1.00);
+        catalog.addTopping("Chocolate Drizzle", 0.75);
+        catalog.addTopping("Berries", 0.25);
+        catalog.addTopping("Waffle", 0.50);
+        catalog.addTopping("Nuts", 1.00);
+        catalog.addTopping("Chocolate Chips", 0.75);
+        for (Topping topping : catalog.menuToppings) {
+            catalog.assignOrdinal(topping);
+        }
+        catalog.addSize("Small", 1.0);
+        catalog.addSize("Medium", 1.25);
+        catalog.addSize("Large", 1.5);
+        return catalog;
+    }
+}
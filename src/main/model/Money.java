@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * Formats amounts of money held in whole cents, without going through
+ * String.format or floating point
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * MODIFIES: sb
+     * EFFECTS: appends the given amount to sb as dollars with two decimal places
+     * (e.g. 350 as "3.50" and -5 as "-0.05") and returns sb
+     */
+    public static StringBuilder appendDollars(StringBuilder sb, long cents) {
+        long abs = Math.abs(cents);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        long remainder = abs % 100;
+        sb.append(abs / 100).append('.');
+        if (remainder < 10) {
+            sb.append('0');
+        }
+        return sb.append(remainder);
+    }
+
+    /**
+     * EFFECTS: returns the given amount as dollars with two decimal places (see
+     * appendDollars)
+     */
+    public static String formatDollars(long cents) {
+        return appendDollars(new StringBuilder(8), cents).toString();
+    }
+}
@@ -1,8 +1,13 @@
 package model;
 
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import org.json.JSONArray;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.json.JSONObject;
 import persistence.Writable;
 
@@ -11,15 +16,33 @@ import persistence.Writable;
  * information
  */
 public class Order implements Writable {
-    private static int nextOrderId = 1;
+    private static final AtomicInteger nextOrderId = new AtomicInteger(1);
+    private static final short[] NO_TOPPINGS = new short[0];
     private int orderId;
     private String customerName;
     private Flavor flavor;
-    private List<Topping> toppings;
+    private short[] toppingOrdinals; // MenuCatalog topping numbers, in the order added
+    private List<Topping> toppingsView; // created on first use
     private Size size;
     private String pickupTime;
-    private boolean isCompleted;
+    private LocalTime pickupLocalTime;
+    private OrderState state;
     private int estimatedPrepTime; // in minutes
+    private long completedAtMillis; // epoch millis, 0 if not recorded
+    private long totalPriceCents = -1; // cached, -1 until computed
+    private String displayText; // cached toString, null until computed
+    private OrderSnapshot snapshot; // cached, null until taken
+
+    // intrusive links maintained by the OrderList this order is queued in
+    OrderList container;
+    Order prev;
+    Order next;
+
+    // slot of this order in the PickupScheduler heap, or -1 if not waiting to start
+    int scheduleSlot = -1;
+
+    // slot of this order in the PrepTimeTree, or -1 if it is not pending
+    int prepSlot = -1;
 
     /**
      * REQUIRES: customerName has non-zero length, flavor is not null, size is not
@@ -28,13 +51,24 @@ public class Order implements Writable {
      * EFFECTS: creates an order with given details, initially not completed
      */
     public Order(String customerName, Flavor flavor, Size size, String pickupTime, int prepTime) {
-        this.orderId = nextOrderId++;
+        this(nextOrderId.getAndIncrement(), customerName, flavor, size, pickupTime, prepTime);
+    }
+
+    /**
+     * REQUIRES: same as above, and orderId is a positive integer
+     * EFFECTS: creates an order with the given ID and details, initially not
+     * completed, without consuming an ID from the order ID sequence (used when
+     * restoring saved orders)
+     */
+    public Order(int orderId, String customerName, Flavor flavor, Size size, String pickupTime, int prepTime) {
+        this.orderId = orderId;
         this.customerName = customerName;
         this.flavor = flavor;
-        this.toppings = new ArrayList<>();
+        this.toppingOrdinals = NO_TOPPINGS;
         this.size = size;
         this.pickupTime = pickupTime;
-        this.isCompleted = false;
+        this.pickupLocalTime = PickupTimeParser.parse(pickupTime);
+        this.state = OrderState.PLACED;
         this.estimatedPrepTime = prepTime;
     }
 
@@ -63,7 +97,37 @@ public class Order implements Writable {
      * EFFECTS: returns the list of selected toppings
      */
     public List<Topping> getToppings() {
-        return new ArrayList<>(toppings);
+        return new ArrayList<>(getToppingsView());
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns a read-only view of the selected toppings, as the shared
+     * MenuCatalog's instances, that reflects toppings added later; no copy is made
+     */
+    public List<Topping> getToppingsView() {
+        if (toppingsView == null) {
+            toppingsView = new ToppingsView();
+        }
+        return toppingsView;
+    }
+
+    /**
+     * EFFECTS: returns a bit mask of the selected toppings, with bit i set if the
+     * topping numbered i by the shared MenuCatalog was selected; throws
+     * IllegalStateException if a selected topping is numbered 64 or more, since
+     * the mask cannot represent it
+     */
+    public long getToppingMask() {
+        long mask = 0;
+        for (short ordinal : toppingOrdinals) {
+            if (ordinal >= Long.SIZE) {
+                throw new IllegalStateException("Order #" + orderId + " has topping number " + ordinal
+                        + ", which does not fit in a topping mask");
+            }
+            mask |= 1L << ordinal;
+        }
+        return mask;
     }
 
     /**
@@ -81,10 +145,70 @@ public class Order implements Writable {
     }
 
     /**
-     * EFFECTS: returns true if order is completed, false otherwise
+     * EFFECTS: returns the pickup time as a time of day, or null if the order is
+     * wanted as soon as possible
+     */
+    public LocalTime getPickupLocalTime() {
+        return pickupLocalTime;
+    }
+
+    /**
+     * EFFECTS: returns true if order is completed (picked up), false otherwise
      */
     public boolean isCompleted() {
-        return isCompleted;
+        return state == OrderState.PICKED_UP;
+    }
+
+    /**
+     * EFFECTS: returns the lifecycle state of this order
+     */
+    public OrderState getState() {
+        return state;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: sets the lifecycle state of this order (used when loading from
+     * JSON); throws IllegalStateException if the order is in an order queue,
+     * which must move it instead (see OrderQueue.advanceOrder)
+     */
+    public void setState(OrderState state) {
+        checkNotQueued();
+        changeState(state);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the lifecycle state of this order (used by the queue holding
+    // it, which moves it between its lists first)
+    void changeState(OrderState state) {
+        this.state = state;
+        invalidateCaches();
+    }
+
+    // EFFECTS: throws IllegalStateException if this order is linked into a queue
+    private void checkNotQueued() {
+        if (container != null) {
+            throw new IllegalStateException("Order #" + orderId + " is in a queue; move it through the queue");
+        }
+    }
+
+    /**
+     * EFFECTS: returns when this order joined a queue's completed orders, in epoch
+     * milliseconds, or 0 if that was not recorded
+     */
+    public long getCompletedAtMillis() {
+        return completedAtMillis;
+    }
+
+    /**
+     * REQUIRES: millis >= 0
+     * MODIFIES: this
+     * EFFECTS: records when this order joined a queue's completed orders (used
+     * when loading from JSON and by the queue when it completes the order)
+     */
+    public void setCompletedAtMillis(long millis) {
+        this.completedAtMillis = millis;
+        invalidateSnapshot();
     }
 
     /**
@@ -96,100 +220,165 @@ public class Order implements Writable {
 
     /**
      * REQUIRES: topping is not null
-     * MODIFIES: this
-     * EFFECTS: adds the given topping to this order
+     * MODIFIES: this, MenuCatalog.getInstance()
+     * EFFECTS: adds the given topping to this order; the order refers to it by its
+     * MenuCatalog number, so it reads back as the catalog's equal instance. Throws
+     * IllegalStateException if the catalog cannot number the topping.
      */
     public void addTopping(Topping topping) {
-        toppings.add(topping);
-        EventLog.getInstance().logEvent(new Event("Topping " 
-                        + topping.getName()
-                         + " was added to order #" 
-                         + orderId + "."));
+        int ordinal = MenuCatalog.ordinalOf(topping);
+        toppingOrdinals = Arrays.copyOf(toppingOrdinals, toppingOrdinals.length + 1);
+        toppingOrdinals[toppingOrdinals.length - 1] = (short) ordinal;
+        totalPriceCents = -1;
+        invalidateCaches();
+        EventLog.getInstance().logEvent(EventType.TOPPING_ADDED, orderId, ordinal);
     }
 
     /**
      * MODIFIES: this
-     * EFFECTS: marks this order as completed
+     * EFFECTS: marks this order as completed; throws IllegalStateException if the
+     * order is in an order queue (see OrderQueue.completeOrder)
      */
     public void markCompleted() {
-        this.isCompleted = true;
-        EventLog.getInstance().logEvent(new Event("Order #" + orderId + " was marked as completed."));
+        setState(OrderState.PICKED_UP);
+        EventLog.getInstance().logEvent(EventType.ORDER_MARKED_COMPLETED, orderId, 0);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns an immutable snapshot of this order's current details; the
+     * same snapshot is returned until this order next changes
+     */
+    public OrderSnapshot snapshot() {
+        if (snapshot == null) {
+            snapshot = new OrderSnapshot(this);
+        }
+        return snapshot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards the cached display text and snapshot after a change
+    private void invalidateCaches() {
+        displayText = null;
+        invalidateSnapshot();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the cached snapshot and tells the list holding this order, if
+    // any, so that the queue's snapshots pick up the change
+    private void invalidateSnapshot() {
+        snapshot = null;
+        if (container != null) {
+            container.orderChanged();
+        }
     }
 
     @Override
     public JSONObject toJson() {
-        JSONObject json = new JSONObject();
-        json.put("orderId", orderId);
-        json.put("customerName", customerName);
-        json.put("flavor", flavor.toJson());
-        json.put("size", size.toJson());
-        json.put("toppings", toppingsToJson());
-        json.put("pickupTime", pickupTime);
-        json.put("isCompleted", isCompleted);
-        json.put("estimatedPrepTime", estimatedPrepTime);
-        return json;
-    }
-
-    // EFFECTS: returns toppings in this order as a JSON array
-    private JSONArray toppingsToJson() {
-        JSONArray jsonArray = new JSONArray();
-        for (Topping topping : toppings) {
-            jsonArray.put(topping.toJson());
-        }
-        return jsonArray;
+        return snapshot().toJson();
     }
 
     // EFFECTS: returns the current nextOrderId value
     public static int getNextOrderId() {
-        return nextOrderId;
+        return nextOrderId.get();
     }
 
     // MODIFIES: this (static field)
     // EFFECTS: sets the nextOrderId to the given value
     public static void setNextOrderId(int id) {
-        nextOrderId = id;
+        nextOrderId.set(id);
     }
 
     // MODIFIES: this
     // EFFECTS: sets the order ID for this order (used when loading from JSON)
     public void setOrderId(int id) {
         this.orderId = id;
+        invalidateCaches();
     }
 
     /**
-     * EFFECTS: calculates and returns the total price of this order
+     * EFFECTS: returns the total price of this order in dollars (see
+     * getTotalPriceCents)
      */
     public double getTotalPrice() {
-        double basePrice = flavor.getPrice();
-        double toppingPrice = 0;
-        for (Topping topping : toppings) {
-            toppingPrice += topping.getPrice();
+        return getTotalPriceCents() / 100.0;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns the total price of this order in whole cents: the flavor and
+     * topping prices added up, then scaled once by the size multiplier and rounded
+     * half up; the total is computed once and reused until a topping is added
+     */
+    public long getTotalPriceCents() {
+        if (totalPriceCents < 0) {
+            long subtotal = flavor.getPriceCents();
+            for (short ordinal : toppingOrdinals) {
+                subtotal += MenuCatalog.toppingAt(ordinal).getPriceCents();
+            }
+            totalPriceCents = size.scaleCents(subtotal);
         }
-        return (basePrice + toppingPrice) * size.getPriceMultiplier();
+        return totalPriceCents;
     }
 
     /**
-     * EFFECTS: returns a string representation of this order
+     * REQUIRES: out is not null
+     * EFFECTS: appends the string representation of this order to out; throws
+     * IOException if out does
+     */
+    public void appendTo(Appendable out) throws IOException {
+        out.append(toString());
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns a string representation of this order; the text is built
+     * once and reused until a topping is added or the order's state or ID changes
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
+        if (displayText == null) {
+            displayText = render();
+        }
+        return displayText;
+    }
+
+    // EFFECTS: builds the string representation of this order
+    private String render() {
+        StringBuilder sb = new StringBuilder(160);
         sb.append("Order #").append(orderId).append(" - ").append(customerName).append("\n");
         sb.append("Flavor: ").append(flavor.getName()).append("\n");
         sb.append("Size: ").append(size.getName()).append("\n");
-        if (!toppings.isEmpty()) {
+        if (toppingOrdinals.length > 0) {
             sb.append("Toppings: ");
-            for (int i = 0; i < toppings.size(); i++) {
+            for (int i = 0; i < toppingOrdinals.length; i++) {
                 if (i > 0) {
                     sb.append(", ");
                 }
-                sb.append(toppings.get(i).getName());
+                sb.append(MenuCatalog.toppingAt(toppingOrdinals[i]).getName());
             }
             sb.append("\n");
         }
         sb.append("Pickup Time: ").append(pickupTime).append("\n");
-        sb.append("Total Price: $").append(String.format("%.2f", getTotalPrice())).append("\n");
-        sb.append("Status: ").append(isCompleted ? "Completed" : "Pending");
+        sb.append("Total Price: $");
+        Money.appendDollars(sb, getTotalPriceCents()).append("\n");
+        sb.append("Status: ").append(state.getDisplayName());
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Represents a read-only list of this order's toppings, decoded from their
+     * catalog numbers on access
+     */
+    private final class ToppingsView extends AbstractList<Topping> implements RandomAccess {
+        @Override
+        public Topping get(int index) {
+            return MenuCatalog.toppingAt(toppingOrdinals[index]);
+        }
+
+        @Override
+        public int size() {
+            return toppingOrdinals.length;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents a hash index from order ID to order. Keys are stored as primitive
+ * ints in an open-addressing table (linear probing with backward-shift deletion),
+ * so lookups, insertions and removals run in expected constant time without
+ * boxing
+ */
+class OrderIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private Order[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * EFFECTS: creates an empty index
+     */
+    OrderIndex() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Order[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * EFFECTS: returns the number of orders in this index
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: grows the table, if needed, so that it can hold the given number of
+     * orders without rehashing again
+     */
+    void ensureCapacity(int expectedSize) {
+        int capacity = values.length;
+        while (expectedSize * 2 > capacity) {
+            capacity *= 2;
+        }
+        if (capacity != values.length) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * EFFECTS: returns the order stored under the given ID, or null if none
+     */
+    Order get(int orderId) {
+        int slot = slotOf(orderId);
+        while (values[slot] != null) {
+            if (keys[slot] == orderId) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * REQUIRES: order is not null
+     * MODIFIES: this
+     * EFFECTS: stores the order under its ID, replacing any order previously
+     * stored under the same ID
+     */
+    void put(Order order) {
+        if ((size + 1) * 2 > values.length) {
+            resize(values.length * 2);
+        }
+        int orderId = order.getOrderId();
+        int slot = slotOf(orderId);
+        while (values[slot] != null) {
+            if (keys[slot] == orderId) {
+                values[slot] = order;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = orderId;
+        values[slot] = order;
+        size++;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: removes and returns the order stored under the given ID, or returns
+     * null if none
+     */
+    Order remove(int orderId) {
+        int slot = slotOf(orderId);
+        while (values[slot] != null) {
+            if (keys[slot] == orderId) {
+                Order removed = values[slot];
+                closeGap(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: removes every order from this index
+     */
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: empties the given slot and shifts later entries of the same probe
+    // run back so that lookups never stop early at the hole
+    private void closeGap(int gap) {
+        int slot = (gap + 1) & mask;
+        while (values[slot] != null) {
+            int home = slotOf(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        values[gap] = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rehashes every entry into a table of the given capacity
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Order[] oldValues = values;
+        keys = new int[capacity];
+        values = new Order[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // EFFECTS: returns the home slot for the given ID
+    private int slotOf(int orderId) {
+        int h = orderId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,210 @@
+package model;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents an insertion-ordered queue of orders that links orders together
+ * directly (intrusively), so that any order can be unlinked in constant time
+ */
+class OrderList implements Iterable<Order> {
+    private Order head;
+    private Order tail;
+    private int size;
+    private int modCount;
+    private int orderChanges;
+    private Collection<Order> view;
+    private List<Order> snapshot;
+    private int snapshotModCount = -1;
+    private List<OrderSnapshot> values;
+    private int valuesModCount = -1;
+
+    /**
+     * EFFECTS: returns the number of orders in this list
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * EFFECTS: returns true if this list holds no orders, false otherwise
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * EFFECTS: returns a count that increases every time this list changes
+     */
+    int modCount() {
+        return modCount;
+    }
+
+    /**
+     * EFFECTS: returns a count that increases every time this list or one of its
+     * orders changes
+     */
+    int valueModCount() {
+        return modCount + orderChanges;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: records that an order in this list changed in place, so the next
+     * valueSnapshot is rebuilt
+     */
+    void orderChanged() {
+        orderChanges++;
+    }
+
+    /**
+     * EFFECTS: returns the oldest order in this list, or null if it is empty
+     */
+    Order first() {
+        return head;
+    }
+
+    /**
+     * EFFECTS: returns true if the given order is currently linked into this list
+     */
+    boolean contains(Order order) {
+        return order.container == this;
+    }
+
+    /**
+     * REQUIRES: order is not null and is not linked into any list
+     * MODIFIES: this, order
+     * EFFECTS: links the given order onto the end of this list
+     */
+    void addLast(Order order) {
+        order.container = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * MODIFIES: this, order
+     * EFFECTS: unlinks the given order from this list and returns true, or returns
+     * false if the order is not in this list
+     */
+    boolean remove(Order order) {
+        if (order.container != this) {
+            return false;
+        }
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        order.prev = null;
+        order.next = null;
+        order.container = null;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * EFFECTS: returns a read-only view of this list that reflects later changes;
+     * the same view object is returned on every call
+     */
+    Collection<Order> view() {
+        if (view == null) {
+            view = new AbstractCollection<Order>() {
+                @Override
+                public Iterator<Order> iterator() {
+                    return OrderList.this.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return view;
+    }
+
+    /**
+     * EFFECTS: returns an immutable copy of this list, oldest first; the copy is
+     * reused until this list next changes
+     */
+    List<Order> snapshot() {
+        if (snapshotModCount != modCount) {
+            Order[] orders = new Order[size];
+            int i = 0;
+            for (Order order = head; order != null; order = order.next) {
+                orders[i++] = order;
+            }
+            snapshot = Collections.unmodifiableList(Arrays.asList(orders));
+            snapshotModCount = modCount;
+        }
+        return snapshot;
+    }
+
+    /**
+     * EFFECTS: returns an immutable list of snapshots of the orders, oldest first;
+     * the same list is returned until this list or one of its orders next changes
+     */
+    List<OrderSnapshot> valueSnapshot() {
+        int valueModCount = valueModCount();
+        if (valuesModCount != valueModCount) {
+            OrderSnapshot[] snapshots = new OrderSnapshot[size];
+            int i = 0;
+            for (Order order = head; order != null; order = order.next) {
+                snapshots[i++] = order.snapshot();
+            }
+            values = Collections.unmodifiableList(Arrays.asList(snapshots));
+            valuesModCount = valueModCount;
+        }
+        return values;
+    }
+
+    /**
+     * EFFECTS: returns an iterator over the orders from oldest to newest
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return new Iterator<Order>() {
+            private Order cursor = head;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor != null;
+            }
+
+            @Override
+            public Order next() {
+                if (expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                Order current = cursor;
+                cursor = cursor.next;
+                return current;
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package model;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Represents several order lists read as one sequence, list by list, without
+ * copying them
+ */
+class OrderListGroup implements Iterable<Order> {
+    private final OrderList[] lists;
+    private Collection<Order> view;
+    private List<Order> snapshot;
+    private long snapshotVersion = -1;
+    private List<OrderSnapshot> values;
+    private long valuesVersion = -1;
+
+    /**
+     * EFFECTS: creates a group reading the given lists in the given order
+     */
+    OrderListGroup(OrderList... lists) {
+        this.lists = lists;
+    }
+
+    /**
+     * EFFECTS: returns the total number of orders in the lists
+     */
+    int size() {
+        int size = 0;
+        for (OrderList list : lists) {
+            size += list.size();
+        }
+        return size;
+    }
+
+    /**
+     * EFFECTS: returns true if every list is empty
+     */
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * EFFECTS: returns true if the given order is linked into one of the lists
+     */
+    boolean contains(Order order) {
+        for (OrderList list : lists) {
+            if (list.contains(order)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * REQUIRES: action does not modify the lists
+     * EFFECTS: passes each order to the given action, list by list
+     */
+    @Override
+    public void forEach(Consumer<? super Order> action) {
+        for (OrderList list : lists) {
+            for (Order order = list.first(); order != null; order = order.next) {
+                action.accept(order);
+            }
+        }
+    }
+
+    /**
+     * EFFECTS: returns a read-only view of the group that reflects later changes;
+     * the same view object is returned on every call
+     */
+    Collection<Order> view() {
+        if (view == null) {
+            view = new AbstractCollection<Order>() {
+                @Override
+                public Iterator<Order> iterator() {
+                    return OrderListGroup.this.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return OrderListGroup.this.size();
+                }
+            };
+        }
+        return view;
+    }
+
+    /**
+     * EFFECTS: returns an immutable copy of the group; the copy is reused until one
+     * of the lists next changes
+     */
+    List<Order> snapshot() {
+        long version = version();
+        if (snapshotVersion != version) {
+            Order[] orders = new Order[size()];
+            int i = 0;
+            for (Order order : this) {
+                orders[i++] = order;
+            }
+            snapshot = Collections.unmodifiableList(Arrays.asList(orders));
+            snapshotVersion = version;
+        }
+        return snapshot;
+    }
+
+    /**
+     * EFFECTS: returns an immutable list of snapshots of the orders, list by list;
+     * the same list is returned until one of the lists or their orders next changes
+     */
+    List<OrderSnapshot> valueSnapshot() {
+        long version = valueVersion();
+        if (valuesVersion != version) {
+            List<OrderSnapshot> snapshots = new ArrayList<>(size());
+            for (OrderList list : lists) {
+                snapshots.addAll(list.valueSnapshot());
+            }
+            values = Collections.unmodifiableList(snapshots);
+            valuesVersion = version;
+        }
+        return values;
+    }
+
+    /**
+     * EFFECTS: returns an iterator over the orders, list by list
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return new Iterator<Order>() {
+            private int listIndex = 0;
+            private Iterator<Order> current = lists[0].iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && listIndex < lists.length - 1) {
+                    current = lists[++listIndex].iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Order next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    // EFFECTS: returns a number that changes whenever any of the lists changes
+    private long version() {
+        long version = 0;
+        for (OrderList list : lists) {
+            version += list.modCount();
+        }
+        return version;
+    }
+
+    // EFFECTS: returns a number that changes whenever any of the lists, or any of
+    // their orders, changes
+    private long valueVersion() {
+        long version = 0;
+        for (OrderList list : lists) {
+            version += list.valueModCount();
+        }
+        return version;
+    }
+}
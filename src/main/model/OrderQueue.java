@@ -1,47 +1,243 @@
 package model;
 
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.OrderArchive;
 import persistence.Writable;
 
 /**
  * Represents a queue of ice cream orders that manages pending and completed
- * orders
+ * orders; each order moves through the lifecycle described by OrderState, and
+ * every state keeps its own queue of orders, oldest first. Listeners added with
+ * addListener are told about each change (see OrderQueueListener).
  */
 public class OrderQueue implements Writable {
-    private List<Order> pendingOrders;
-    private List<Order> completedOrders;
+    private OrderList[] ordersByState;
+    private OrderListGroup pendingOrders;
+    private OrderList completedOrders;
+    private OrderList deferredOrders;
+    private OrderIndex ordersById;
+    private PickupScheduler schedule;
+    private PrepTimeTree prepTimes;
+    private Clock clock;
+    private OrderSearchIndex pendingSearch;
+    private OrderSearchIndex completedSearch;
+    private SalesAggregates sales;
+    private OrderArchive archive;
+    private int maxResidentCompleted;
+    private long maxCompletedAgeMillis;
+    private int scoopStations;
+    private long maxWaitMinutes;
+    private long deferredMinutes;
+    private AdmissionDecision overloadDecision;
+    private List<OrderQueueListener> listeners;
 
     /**
-     * EFFECTS: creates an empty order queue
+     * EFFECTS: creates an empty order queue that starts orders in FIFO order
      */
     public OrderQueue() {
-        this.pendingOrders = new ArrayList<>();
-        this.completedOrders = new ArrayList<>();
+        this.ordersByState = new OrderList[OrderState.values().length];
+        for (int i = 0; i < ordersByState.length; i++) {
+            ordersByState[i] = new OrderList();
+        }
+        this.pendingOrders = new OrderListGroup(stateList(OrderState.READY), stateList(OrderState.PREPARING),
+                stateList(OrderState.PLACED));
+        this.completedOrders = stateList(OrderState.PICKED_UP);
+        this.deferredOrders = new OrderList();
+        this.overloadDecision = AdmissionDecision.QUOTED;
+        this.ordersById = new OrderIndex();
+        this.schedule = new PickupScheduler(SchedulingMode.FIFO);
+        this.prepTimes = new PrepTimeTree();
+        this.pendingSearch = new OrderSearchIndex();
+        this.completedSearch = new OrderSearchIndex();
+        this.sales = new SalesAggregates();
+        this.clock = Clock.systemDefaultZone();
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     /**
-     * REQUIRES: order is not null
+     * REQUIRES: listener is not null
+     * MODIFIES: this
+     * EFFECTS: registers the given listener to be told about every later change
+     * to this queue
+     */
+    public void addListener(OrderQueueListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: stops telling the given listener about changes to this queue
+     */
+    public void removeListener(OrderQueueListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * REQUIRES: order is not null, no order with the same ID is in this queue, and
+     * no toppings are added to the order afterwards
      * MODIFIES: this
      * EFFECTS: adds the given order to the pending queue
      */
     public void addOrder(Order order) {
-        pendingOrders.add(order);
-        EventLog.getInstance().logEvent(new Event("Order with ID " + order.getOrderId() + " was added to the queue."));
+        enqueue(order, currentMinuteOfDay());
+        sales.add(order);
+        EventLog.getInstance().logEvent(EventType.ORDER_ADDED, order.getOrderId(), 0);
+        fireOrderAdded(order);
+    }
+
+    /**
+     * REQUIRES: scoopStations >= 0, maxWaitMinutes >= 0, and overloadDecision is
+     * QUOTED, DEFERRED or REJECTED
+     * MODIFIES: this
+     * EFFECTS: sets the kitchen capacity used by admitOrder: the number of orders
+     * prepared at once and the longest wait that may be promised to a new order;
+     * orders that would wait longer are handled as overloadDecision says. Zero
+     * scoop stations turns admission control off. Deferred orders that now fit are
+     * queued.
+     */
+    public void setCapacity(int scoopStations, long maxWaitMinutes, AdmissionDecision overloadDecision) {
+        this.scoopStations = scoopStations;
+        this.maxWaitMinutes = maxWaitMinutes;
+        this.overloadDecision = overloadDecision;
+        EventLog.getInstance().logEvent(new Event("Capacity set to " + scoopStations + " scoop stations and a "
+                + maxWaitMinutes + " minute maximum wait."));
+        admitDeferred();
+    }
+
+    /**
+     * EFFECTS: returns the number of orders the kitchen prepares at once, or 0 if
+     * admission control is off
+     */
+    public int getScoopStations() {
+        return scoopStations;
+    }
+
+    /**
+     * REQUIRES: order is not null
+     * EFFECTS: returns what admitOrder would do with the given order right now,
+     * without changing this queue; takes constant time. The wait counts deferred
+     * orders as well as pending ones, and a new order is never queued ahead of a
+     * deferred one.
+     */
+    public AdmissionResult quoteOrder(Order order) {
+        long wait = waitForNewOrder(order);
+        AdmissionDecision decision = scoopStations == 0 || wait <= maxWaitMinutes
+                ? AdmissionDecision.ACCEPTED : overloadDecision;
+        if (decision == AdmissionDecision.QUOTED && !deferredOrders.isEmpty()) {
+            decision = AdmissionDecision.DEFERRED;
+        }
+        return new AdmissionResult(decision, wait, LocalTime.now(clock).plusMinutes(wait));
+    }
+
+    /**
+     * REQUIRES: same as addOrder
+     * MODIFIES: this
+     * EFFECTS: offers the given order to the kitchen: queues it if it is ACCEPTED
+     * or QUOTED, holds it back until the backlog falls far enough if it is
+     * DEFERRED, or drops it if it is REJECTED (see setCapacity); returns the result
+     */
+    public AdmissionResult admitOrder(Order order) {
+        AdmissionResult result = quoteOrder(order);
+        if (result.isQueued()) {
+            addOrder(order);
+        } else if (result.getDecision() == AdmissionDecision.DEFERRED) {
+            defer(order);
+            EventLog.getInstance().logEvent(EventType.ORDER_DEFERRED, order.getOrderId(), 0);
+        } else {
+            EventLog.getInstance().logEvent(EventType.ORDER_REJECTED, order.getOrderId(), 0);
+        }
+        return result;
+    }
+
+    /**
+     * EFFECTS: returns the number of orders held back by admitOrder and not yet
+     * queued
+     */
+    public int getDeferredOrderCount() {
+        return deferredOrders.size();
+    }
+
+    /**
+     * EFFECTS: returns true if the order with the given ID is held back by
+     * admitOrder and not yet queued
+     */
+    public boolean isDeferred(int orderId) {
+        Order order = ordersById.get(orderId);
+        return order != null && deferredOrders.contains(order);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: holds the given order back behind every order already deferred
+    private void defer(Order order) {
+        deferredOrders.addLast(order);
+        ordersById.put(order);
+        deferredMinutes += order.getEstimatedPrepTime();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given order from the deferred orders and returns true, or
+    // returns false if it is not deferred
+    private boolean withdrawDeferred(Order order) {
+        if (!deferredOrders.remove(order)) {
+            return false;
+        }
+        deferredMinutes -= order.getEstimatedPrepTime();
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues deferred orders, oldest first, while the oldest one fits
+    // within the maximum wait
+    private void admitDeferred() {
+        Order oldest = deferredOrders.first();
+        while (oldest != null && (scoopStations == 0
+                || waitBehind(prepTimes.getTotalMinutes(), oldest) <= maxWaitMinutes)) {
+            withdrawDeferred(oldest);
+            enqueue(oldest, currentMinuteOfDay());
+            sales.add(oldest);
+            EventLog.getInstance().logEvent(EventType.DEFERRED_ORDER_ADDED, oldest.getOrderId(), 0);
+            fireOrderAdded(oldest);
+            oldest = deferredOrders.first();
+        }
+    }
+
+    // EFFECTS: returns the estimated minutes until the given order would be ready
+    // if it were queued now, behind every pending and deferred order
+    private long waitForNewOrder(Order order) {
+        return waitBehind(prepTimes.getTotalMinutes() + deferredMinutes, order);
+    }
+
+    // EFFECTS: returns the estimated minutes until the given order would be ready
+    // behind the given backlog, sharing the work across the scoop stations
+    private long waitBehind(long backlogMinutes, Order order) {
+        int stations = Math.max(1, scoopStations);
+        long minutes = backlogMinutes + order.getEstimatedPrepTime();
+        return (minutes + stations - 1) / stations;
     }
 
     /**
-     * REQUIRES: order is not null and order.isCompleted() is true
+     * REQUIRES: order is not null, order.isCompleted() is true and no order with
+     * the same ID is in this queue
      * MODIFIES: this
      * EFFECTS: adds the given completed order directly to the completed orders list
      */
     public void addCompletedOrder(Order order) {
-        completedOrders.add(order);
-        EventLog.getInstance().logEvent(new Event("Completed order with ID " 
-                        + order.getOrderId() 
-                            + " was added to completed orders."));
+        ordersById.put(order);
+        appendCompleted(order);
+        sales.add(order);
+        EventLog.getInstance().logEvent(EventType.COMPLETED_ORDER_ADDED, order.getOrderId(), 0);
+        fireOrderAdded(order);
+        enforceRetention();
     }
 
     /**
@@ -52,39 +248,488 @@ public class OrderQueue implements Writable {
      */
     public void completeOrder(int orderId) {
         Order orderToComplete = findOrderById(orderId);
-        if (orderToComplete != null) {
-            orderToComplete.markCompleted();
-            pendingOrders.remove(orderToComplete);
-            completedOrders.add(orderToComplete);
+        OrderState previous = null;
+        if (orderToComplete != null && !deferredOrders.contains(orderToComplete)) {
+            previous = moveTo(orderToComplete, OrderState.PICKED_UP);
+            EventLog.getInstance().logEvent(EventType.ORDER_MARKED_COMPLETED, orderId, 0);
+        }
+        EventLog.getInstance().logEvent(EventType.ORDER_COMPLETED, orderId, 0);
+        enforceRetention();
+        if (previous != null) {
+            finishMove(orderToComplete, previous);
         }
-        EventLog.getInstance().logEvent(new Event("Order with ID " + orderId + " was completed."));
     }
 
     /**
-     * REQUIRES: orderId corresponds to an existing pending order
      * MODIFIES: this
-     * EFFECTS: removes the order with given ID from the pending queue
+     * EFFECTS: removes the pending or deferred order with given ID from the queue
+     * and keeps it as a cancelled order (see getOrdersInState); does nothing if no
+     * such order exists
      */
     public void cancelOrder(int orderId) {
         Order orderToCancel = findOrderById(orderId);
         if (orderToCancel != null) {
-            pendingOrders.remove(orderToCancel);
+            OrderState previous = moveTo(orderToCancel, OrderState.CANCELLED);
+            EventLog.getInstance().logEvent(EventType.ORDER_CANCELLED, orderId, 0);
+            finishMove(orderToCancel, previous);
         }
-        EventLog.getInstance().logEvent(new Event("Order with ID " + orderId + " was cancelled."));
+    }
+
+    /**
+     * REQUIRES: orders contains no nulls, and no two orders in orders or in this
+     * queue share an ID
+     * MODIFIES: this
+     * EFFECTS: adds the given orders to the pending queue in iteration order,
+     * logs a single batch event listing their IDs and tells listeners once
+     */
+    public void addOrders(Collection<Order> orders) {
+        ordersById.ensureCapacity(ordersById.size() + orders.size());
+        int arrivalMinute = currentMinuteOfDay();
+        int[] orderIds = new int[orders.size()];
+        int added = 0;
+        for (Order order : orders) {
+            enqueue(order, arrivalMinute);
+            sales.add(order);
+            orderIds[added++] = order.getOrderId();
+        }
+        EventLog.getInstance().logEvent(new Event(EventType.ORDERS_ADDED, orderIds));
+        fireBulkLoaded();
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: marks each pending order with one of the given IDs as completed and
+     * moves it to completed orders, ignoring IDs that are not pending; logs a single
+     * batch event listing the completed orders and returns how many there were
+     */
+    public int completeOrders(int... orderIds) {
+        List<Order> moved = new ArrayList<>(orderIds.length);
+        List<OrderState> previous = new ArrayList<>(orderIds.length);
+        for (int orderId : orderIds) {
+            Order order = pendingOrder(orderId);
+            if (order != null) {
+                previous.add(moveTo(order, OrderState.PICKED_UP));
+                moved.add(order);
+            }
+        }
+        EventLog.getInstance().logEvent(new Event(EventType.ORDERS_COMPLETED, idsOf(moved)));
+        enforceRetention();
+        finishMoves(moved, previous);
+        return moved.size();
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: cancels each pending or deferred order with one of the given IDs
+     * (see cancelOrder), ignoring other IDs; logs a single batch event listing
+     * the cancelled orders and returns how many there were
+     */
+    public int cancelOrders(int... orderIds) {
+        List<Order> moved = new ArrayList<>(orderIds.length);
+        List<OrderState> previous = new ArrayList<>(orderIds.length);
+        for (int orderId : orderIds) {
+            Order order = cancellableOrder(orderId);
+            if (order != null) {
+                previous.add(moveTo(order, OrderState.CANCELLED));
+                moved.add(order);
+            }
+        }
+        EventLog.getInstance().logEvent(new Event(EventType.ORDERS_CANCELLED, idsOf(moved)));
+        finishMoves(moved, previous);
+        return moved.size();
+    }
+
+    /**
+     * REQUIRES: this queue is empty, no two orders share an ID, every order in
+     * pending is in a pending state and every order in completed is marked as
+     * completed
+     * MODIFIES: this
+     * EFFECTS: loads the given pending and completed orders, in iteration order and
+     * each into the queue for its state,
+     * computing the sales totals in a single pass at the end, logging a single
+     * event and telling listeners once (used when restoring a saved queue)
+     */
+    public void loadOrders(Collection<Order> pending, Collection<Order> completed) {
+        loadOrders(pending, completed, List.of());
+    }
+
+    /**
+     * REQUIRES: same as loadOrders(pending, completed), and every order in deferred
+     * is PLACED and shares no ID with any other order
+     * MODIFIES: this
+     * EFFECTS: loads the given orders as loadOrders(pending, completed) does, then
+     * holds the given deferred orders back behind them in iteration order, as if
+     * admitOrder had deferred them
+     */
+    public void loadOrders(Collection<Order> pending, Collection<Order> completed, Collection<Order> deferred) {
+        ordersById.ensureCapacity(pending.size() + completed.size() + deferred.size());
+        int arrivalMinute = currentMinuteOfDay();
+        for (Order order : pending) {
+            enqueue(order, arrivalMinute);
+        }
+        for (Order order : completed) {
+            ordersById.put(order);
+            appendCompleted(order);
+        }
+        for (Order order : deferred) {
+            defer(order);
+        }
+        rebuildSales();
+        EventLog.getInstance().logEvent(new Event(pending.size() + " pending and " + completed.size()
+                + " completed orders were loaded into the queue."));
+        enforceRetention();
+        fireBulkLoaded();
+    }
+
+    /**
+     * EFFECTS: returns a snapshot of the sales totals over every order added and not
+     * cancelled, pending, completed or archived
+     */
+    public SalesSummary getSalesSummary() {
+        return sales.snapshot();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: links the given pending order into the queue for its state and every
+    // pending-order structure that applies to that state
+    private void enqueue(Order order, int arrivalMinute) {
+        OrderState state = order.getState();
+        stateList(state).addLast(order);
+        ordersById.put(order);
+        if (state == OrderState.PLACED) {
+            schedule.add(order, arrivalMinute);
+        }
+        if (state != OrderState.READY) {
+            prepTimes.add(order);
+        }
+        pendingSearch.add(order);
+    }
+
+    // REQUIRES: order is in this queue and its state can transition to next; a
+    // deferred order can only be cancelled
+    // MODIFIES: this, order
+    // EFFECTS: moves the given order from the queue for its state to the queue for
+    // the next state, updating every structure that depends on its state in O(1)
+    // or O(log n) time, and returns the state it left; callers finish the move
+    // with finishMove once their own bookkeeping is done
+    private OrderState moveTo(Order order, OrderState next) {
+        OrderState previous = order.getState();
+        if (!withdrawDeferred(order)) {
+            unlinkPending(order, next);
+        }
+        order.changeState(next);
+        if (next == OrderState.PICKED_UP) {
+            appendCompleted(order);
+        } else {
+            stateList(next).addLast(order);
+        }
+        return previous;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells every listener that the given order moved out of the previous
+    // state, then queues deferred orders that fit now that it left the backlog
+    private void finishMove(Order order, OrderState previous) {
+        fireOrderStateChanged(order, previous);
+        if (order.getState() != OrderState.PREPARING && !deferredOrders.isEmpty()) {
+            admitDeferred();
+        }
+    }
+
+    // EFFECTS: returns the IDs of the given orders, in order
+    private static int[] idsOf(List<Order> orders) {
+        int[] orderIds = new int[orders.size()];
+        for (int i = 0; i < orderIds.length; i++) {
+            orderIds[i] = orders.get(i).getOrderId();
+        }
+        return orderIds;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finishes the move of each given order out of the matching previous
+    // state (see finishMove)
+    private void finishMoves(List<Order> moved, List<OrderState> previous) {
+        for (int i = 0; i < moved.size(); i++) {
+            finishMove(moved.get(i), previous.get(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given queued order from every structure it leaves when
+    // it moves to the next state
+    private void unlinkPending(Order order, OrderState next) {
+        order.container.remove(order);
+        schedule.remove(order);
+        if (next != OrderState.PREPARING) {
+            prepTimes.remove(order);
+        }
+        if (!next.isPending()) {
+            pendingSearch.remove(order);
+        }
+        if (next == OrderState.CANCELLED) {
+            sales.remove(order);
+        }
+    }
+
+    // EFFECTS: tells every listener that the given order was added
+    private void fireOrderAdded(Order order) {
+        for (OrderQueueListener listener : listeners) {
+            listener.orderAdded(order);
+        }
+    }
+
+    // EFFECTS: tells every listener that the given order moved out of the previous state
+    private void fireOrderStateChanged(Order order, OrderState previous) {
+        for (OrderQueueListener listener : listeners) {
+            listener.orderStateChanged(order, previous);
+        }
+    }
+
+    // EFFECTS: tells every listener that the given order left the queue
+    private void fireOrderRemoved(Order order) {
+        for (OrderQueueListener listener : listeners) {
+            listener.orderRemoved(order);
+        }
+    }
+
+    // EFFECTS: tells every listener that many orders were added at once
+    private void fireBulkLoaded() {
+        for (OrderQueueListener listener : listeners) {
+            listener.bulkLoaded();
+        }
+    }
+
+    // EFFECTS: returns the queue of orders in the given state
+    private OrderList stateList(OrderState state) {
+        return ordersByState[state.ordinal()];
+    }
+
+    // MODIFIES: this, order
+    // EFFECTS: stamps the given order with the current time, unless it already
+    // records when it was completed, and appends it to the completed orders
+    private void appendCompleted(Order order) {
+        if (order.getCompletedAtMillis() == 0) {
+            order.setCompletedAtMillis(clock.millis());
+        }
+        completedOrders.addLast(order);
+        completedSearch.add(order);
+    }
+
+    /**
+     * REQUIRES: maxResidentOrders >= 0 and maxAgeMinutes >= 0
+     * MODIFIES: this
+     * EFFECTS: limits the completed orders kept in memory to the most recent
+     * maxResidentOrders and to those completed within the last maxAgeMinutes (0
+     * means no limit); older completed orders are moved to the given archive. A null
+     * archive turns retention off and keeps every completed order in memory. The
+     * sales totals are recomputed to include the orders already in the archive.
+     */
+    public void setCompletedRetention(int maxResidentOrders, long maxAgeMinutes, OrderArchive archive) {
+        this.archive = archive;
+        rebuildSales();
+        this.maxResidentCompleted = maxResidentOrders;
+        this.maxCompletedAgeMillis = maxAgeMinutes * 60_000L;
+        EventLog.getInstance().logEvent(new Event("Completed order retention set to " + maxResidentOrders
+                + " orders and " + maxAgeMinutes + " minutes."));
+        enforceRetention();
+    }
+
+    /**
+     * EFFECTS: returns the number of completed orders that have been moved to the
+     * archive
+     */
+    public int getArchivedOrderCount() {
+        return archive == null ? 0 : archive.size();
+    }
+
+    /**
+     * REQUIRES: offset >= 0 and limit >= 0
+     * EFFECTS: returns up to limit completed orders, oldest first, starting at the
+     * given position, reading archived orders back from disk as needed; throws
+     * IOException if the archive cannot be read
+     */
+    public List<Order> getCompletedOrders(int offset, int limit) throws IOException {
+        int archived = getArchivedOrderCount();
+        List<Order> page = new ArrayList<>();
+        if (offset < archived) {
+            page.addAll(archive.read(offset, limit));
+        }
+        int skip = Math.max(0, offset - archived);
+        for (Order order : completedOrders) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                page.add(order);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * EFFECTS: passes every completed order, oldest first, to the given action,
+     * streaming archived orders from disk one at a time; throws IOException if the
+     * archive cannot be read
+     */
+    public void forEachCompletedOrder(Consumer<Order> action) throws IOException {
+        if (archive != null) {
+            archive.forEach(action);
+        }
+        forEachCompleted(action);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the oldest completed orders to the archive until the retention
+    // limits are met; stops early if the archive cannot be written
+    private void enforceRetention() {
+        if (archive == null) {
+            return;
+        }
+        Order oldest = completedOrders.first();
+        while (oldest != null && exceedsRetention(oldest)) {
+            try {
+                archive.append(oldest);
+            } catch (IOException e) {
+                EventLog.getInstance().logEvent(EventType.ORDER_NOT_ARCHIVED, oldest.getOrderId(), 0);
+                return;
+            }
+            completedOrders.remove(oldest);
+            completedSearch.remove(oldest);
+            ordersById.remove(oldest.getOrderId());
+            fireOrderRemoved(oldest);
+            oldest = completedOrders.first();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the sales totals from the pending, completed and archived
+    // orders; leaves archived orders out if the archive cannot be read
+    private void rebuildSales() {
+        sales.rebuild(pendingOrders, completedOrders);
+        if (archive == null) {
+            return;
+        }
+        try {
+            archive.forEach(sales::add);
+        } catch (IOException e) {
+            sales.rebuild(pendingOrders, completedOrders);
+            EventLog.getInstance().logEvent(new Event("Archived orders could not be read into the sales totals."));
+        }
+    }
+
+    // EFFECTS: returns true if the given oldest resident completed order falls
+    // outside the retention limits
+    private boolean exceedsRetention(Order oldest) {
+        boolean tooMany = maxResidentCompleted > 0 && completedOrders.size() > maxResidentCompleted;
+        boolean tooOld = maxCompletedAgeMillis > 0
+                && oldest.getCompletedAtMillis() < clock.millis() - maxCompletedAgeMillis;
+        return tooMany || tooOld;
+    }
+
+    // EFFECTS: returns the pending order with the given ID, or null, without logging
+    private Order pendingOrder(int orderId) {
+        Order order = ordersById.get(orderId);
+        return order != null && pendingOrders.contains(order) ? order : null;
+    }
+
+    // EFFECTS: returns the pending or deferred order with the given ID, or null,
+    // without logging
+    private Order cancellableOrder(int orderId) {
+        Order order = ordersById.get(orderId);
+        return order != null && (pendingOrders.contains(order) || deferredOrders.contains(order)) ? order : null;
     }
 
     /**
      * EFFECTS: returns a list of all pending orders
      */
     public List<Order> getPendingOrders() {
-        return new ArrayList<>(pendingOrders);
+        return toList(pendingOrders.view());
     }
 
     /**
-     * EFFECTS: returns a list of all completed orders
+     * EFFECTS: returns a list of all completed orders held in memory (see
+     * setCompletedRetention)
      */
     public List<Order> getCompletedOrders() {
-        return new ArrayList<>(completedOrders);
+        return toList(completedOrders.view());
+    }
+
+    /**
+     * EFFECTS: returns a read-only view of the pending orders, READY first, then
+     * PREPARING, then PLACED, oldest first within each state, that reflects later
+     * changes to this queue; no copy is made
+     */
+    public Collection<Order> getPendingOrdersView() {
+        return pendingOrders.view();
+    }
+
+    /**
+     * EFFECTS: returns a read-only view of the completed orders held in memory,
+     * oldest first, that reflects later changes to this queue; no copy is made
+     */
+    public Collection<Order> getCompletedOrdersView() {
+        return completedOrders.view();
+    }
+
+    /**
+     * EFFECTS: returns an immutable list of the pending orders, in the same order as
+     * getPendingOrdersView; the same list is returned until they next change
+     */
+    public List<Order> getPendingOrdersSnapshot() {
+        return pendingOrders.snapshot();
+    }
+
+    /**
+     * EFFECTS: returns an immutable list of the completed orders held in memory,
+     * oldest first; the same list is returned until they next change
+     */
+    public List<Order> getCompletedOrdersSnapshot() {
+        return completedOrders.snapshot();
+    }
+
+    /**
+     * EFFECTS: returns an immutable snapshot of every order held in memory, which
+     * may be handed to other threads; lists of orders that have not changed since
+     * the last snapshot are shared with it rather than copied
+     */
+    public OrderQueueSnapshot getSnapshot() {
+        List<List<OrderSnapshot>> byState = new ArrayList<>(ordersByState.length);
+        for (OrderList list : ordersByState) {
+            byState.add(list.valueSnapshot());
+        }
+        return new OrderQueueSnapshot(Collections.unmodifiableList(byState), pendingOrders.valueSnapshot(),
+                deferredOrders.valueSnapshot(), Order.getNextOrderId());
+    }
+
+    /**
+     * REQUIRES: action does not modify this queue
+     * EFFECTS: passes each pending order, in the same order as
+     * getPendingOrdersView, to the given action
+     */
+    public void forEachPending(Consumer<Order> action) {
+        pendingOrders.forEach(action);
+    }
+
+    /**
+     * REQUIRES: action does not modify this queue
+     * EFFECTS: passes each completed order held in memory, oldest first, to the
+     * given action (see forEachCompletedOrder to include archived orders)
+     */
+    public void forEachCompleted(Consumer<Order> action) {
+        for (Order order = completedOrders.first(); order != null; order = order.next) {
+            action.accept(order);
+        }
+    }
+
+    // EFFECTS: returns the given orders as a new list, in iteration order
+    private List<Order> toList(Collection<Order> orders) {
+        List<Order> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            result.add(order);
+        }
+        return result;
     }
 
     /**
@@ -95,10 +740,10 @@ public class OrderQueue implements Writable {
     }
 
     /**
-     * EFFECTS: returns the number of completed orders
+     * EFFECTS: returns the number of completed orders, including archived ones
      */
     public int getCompletedOrderCount() {
-        return completedOrders.size();
+        return completedOrders.size() + getArchivedOrderCount();
     }
 
     /**
@@ -110,55 +755,267 @@ public class OrderQueue implements Writable {
 
     /**
      * REQUIRES: orderId is a positive integer
-     * EFFECTS: returns the order with the given ID, or null if not found
+     * EFFECTS: returns the pending or deferred order with the given ID, or null if
+     * not found
      */
     public Order findOrderById(int orderId) {
-        for (Order order : pendingOrders) {
-            if (order.getOrderId() == orderId) {
-                EventLog.getInstance().logEvent(new Event("Order with ID " + orderId + " was found in the queue."));
-                return order;
-            }
+        Order order = cancellableOrder(orderId);
+        if (order != null) {
+            EventLog.getInstance().logEvent(EventType.ORDER_FOUND, orderId, 0);
+            return order;
         }
-        EventLog.getInstance().logEvent(new Event("Order with ID " + orderId + " was not found in the queue."));
+        EventLog.getInstance().logEvent(EventType.ORDER_NOT_FOUND, orderId, 0);
         return null;
     }
 
     /**
-     * EFFECTS: returns the estimated preparation time for the next order in queue
+     * REQUIRES: orderId is a positive integer
+     * EFFECTS: returns the completed order with the given ID, or null if not found
+     */
+    public Order findCompletedOrderById(int orderId) {
+        Order order = ordersById.get(orderId);
+        if (order != null && completedOrders.contains(order)) {
+            return order;
+        }
+        return null;
+    }
+
+    /**
+     * EFFECTS: returns the estimated preparation time for the next order due to be
+     * started (see getSchedulingMode), or 0 if every pending order has been started
      */
     public int getNextOrderPrepTime() {
-        if (!pendingOrders.isEmpty()) {
-            EventLog.getInstance().logEvent(new Event("Estimated prep time for next order is " 
-                       + pendingOrders.get(0).getEstimatedPrepTime() 
-                       + " minutes."));
-            return pendingOrders.get(0).getEstimatedPrepTime();
+        Order next = schedule.peek();
+        if (next != null) {
+            EventLog.getInstance().logEvent(EventType.PREP_TIME_ESTIMATED, next.getOrderId(),
+                    next.getEstimatedPrepTime());
+            return next.getEstimatedPrepTime();
         }
-        EventLog.getInstance().logEvent(new Event("No pending orders."));
+        EventLog.getInstance().logEvent(EventType.NO_PENDING_ORDERS, 0, 0);
         return 0;
     }
 
+    /**
+     * EFFECTS: returns a read-only view of the pending (completed is false) or
+     * resident completed (completed is true) orders for the given customer name,
+     * ignoring case; the view reflects later changes to this queue
+     */
+    public Collection<Order> findByCustomer(String customerName, boolean completed) {
+        return searchIndex(completed).findByCustomer(customerName);
+    }
+
+    /**
+     * EFFECTS: returns a read-only view of the pending or resident completed orders
+     * for the given flavor name, ignoring case (see findByCustomer)
+     */
+    public Collection<Order> findByFlavor(String flavorName, boolean completed) {
+        return searchIndex(completed).findByFlavor(flavorName);
+    }
+
+    /**
+     * EFFECTS: returns a read-only view of the pending or resident completed orders
+     * of the given size name, ignoring case (see findByCustomer)
+     */
+    public Collection<Order> findBySize(String sizeName, boolean completed) {
+        return searchIndex(completed).findBySize(sizeName);
+    }
+
+    /**
+     * EFFECTS: returns the number of pending or resident completed orders for the
+     * given customer name, ignoring case
+     */
+    public int countByCustomer(String customerName, boolean completed) {
+        return searchIndex(completed).countByCustomer(customerName);
+    }
+
+    /**
+     * EFFECTS: returns the number of pending or resident completed orders for the
+     * given flavor name, ignoring case
+     */
+    public int countByFlavor(String flavorName, boolean completed) {
+        return searchIndex(completed).countByFlavor(flavorName);
+    }
+
+    /**
+     * EFFECTS: returns the number of pending or resident completed orders of the
+     * given size name, ignoring case
+     */
+    public int countBySize(String sizeName, boolean completed) {
+        return searchIndex(completed).countBySize(sizeName);
+    }
+
+    // EFFECTS: returns the secondary indexes for completed or pending orders
+    private OrderSearchIndex searchIndex(boolean completed) {
+        return completed ? completedSearch : pendingSearch;
+    }
+
+    /**
+     * EFFECTS: returns the total estimated preparation time, in minutes, of all
+     * pending orders
+     */
+    public long getTotalBacklogMinutes() {
+        return prepTimes.getTotalMinutes();
+    }
+
+    /**
+     * EFFECTS: returns the number of minutes until the pending order with the given
+     * ID should be ready, assuming pending orders are prepared one at a time in the
+     * order they were placed; returns -1 if no pending order has that ID
+     */
+    public long getEstimatedWaitMinutes(int orderId) {
+        Order order = ordersById.get(orderId);
+        if (order == null || !prepTimes.contains(order)) {
+            return -1;
+        }
+        return prepTimes.minutesUpTo(order);
+    }
+
+    /**
+     * EFFECTS: returns the time of day at which the pending order with the given ID
+     * should be ready (see getEstimatedWaitMinutes), or null if no pending order
+     * has that ID
+     */
+    public LocalTime getEstimatedReadyTime(int orderId) {
+        long wait = getEstimatedWaitMinutes(orderId);
+        if (wait < 0) {
+            return null;
+        }
+        return LocalTime.now(clock).plusMinutes(wait);
+    }
+
+    /**
+     * EFFECTS: returns the policy used to choose the next order to start
+     */
+    public SchedulingMode getSchedulingMode() {
+        return schedule.getMode();
+    }
+
+    /**
+     * REQUIRES: mode is not null
+     * MODIFIES: this
+     * EFFECTS: sets the policy used to choose the next order to start and
+     * re-orders the orders not yet started accordingly
+     */
+    public void setSchedulingMode(SchedulingMode mode) {
+        schedule.setMode(mode);
+        EventLog.getInstance().logEvent(new Event("Scheduling mode set to " + mode + "."));
+    }
+
+    /**
+     * EFFECTS: returns the pending order that should be started next, or null if
+     * every pending order has already been started
+     */
+    public Order peekNextOrderToStart() {
+        return schedule.peek();
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: moves the next order to start to PREPARING and returns it, or returns
+     * null if every pending order has already been started; the order stays
+     * pending until it is picked up or cancelled
+     */
+    public Order pollNextOrderToStart() {
+        Order next = schedule.peek();
+        if (next != null) {
+            advanceOrder(next.getOrderId(), OrderState.PREPARING);
+        }
+        return next;
+    }
+
+    /**
+     * REQUIRES: next is not null
+     * MODIFIES: this
+     * EFFECTS: moves the order with the given ID to the given state if it is in
+     * this queue and its current state allows it (see OrderState); moving to
+     * PICKED_UP completes the order and moving to CANCELLED cancels it. A deferred
+     * order can only be cancelled. Returns true if the order was moved, false
+     * otherwise.
+     */
+    public boolean advanceOrder(int orderId, OrderState next) {
+        Order order = ordersById.get(orderId);
+        if (order == null || !order.getState().canTransitionTo(next)
+                || next != OrderState.CANCELLED && deferredOrders.contains(order)) {
+            return false;
+        }
+        OrderState previous = moveTo(order, next);
+        EventLog.getInstance().logEvent(EventType.ORDER_MOVED, orderId, next.ordinal());
+        enforceRetention();
+        finishMove(order, previous);
+        return true;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: moves the pending order with the given ID to PREPARING; returns true
+     * if it was moved, false otherwise (see advanceOrder)
+     */
+    public boolean startOrder(int orderId) {
+        return advanceOrder(orderId, OrderState.PREPARING);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: moves the pending order with the given ID to READY; returns true if
+     * it was moved, false otherwise (see advanceOrder)
+     */
+    public boolean markOrderReady(int orderId) {
+        return advanceOrder(orderId, OrderState.READY);
+    }
+
+    /**
+     * REQUIRES: state is not null
+     * EFFECTS: returns the number of orders held in memory in the given state
+     */
+    public int getOrderCount(OrderState state) {
+        return stateList(state).size();
+    }
+
+    /**
+     * REQUIRES: state is not null
+     * EFFECTS: returns a read-only view of the orders held in memory in the given
+     * state, oldest first, that reflects later changes to this queue; no copy is
+     * made
+     */
+    public Collection<Order> getOrdersInState(OrderState state) {
+        return stateList(state).view();
+    }
+
+    /**
+     * EFFECTS: returns the state of the order with the given ID, or null if no order
+     * held in memory has that ID
+     */
+    public OrderState getOrderState(int orderId) {
+        Order order = ordersById.get(orderId);
+        return order == null ? null : order.getState();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the clock used to timestamp ASAP orders (used by tests)
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    // EFFECTS: returns the current minute of the day according to this queue's clock
+    private int currentMinuteOfDay() {
+        LocalTime now = LocalTime.now(clock);
+        return now.getHour() * 60 + now.getMinute();
+    }
+
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("nextOrderId", Order.getNextOrderId());
-        json.put("pendingOrders", pendingOrdersToJson());
-        json.put("completedOrders", completedOrdersToJson());
+        json.put("pendingOrders", ordersToJson(pendingOrders));
+        json.put("deferredOrders", ordersToJson(deferredOrders));
+        json.put("completedOrders", ordersToJson(completedOrders));
         return json;
     }
 
-    // EFFECTS: returns pending orders as a JSON array
-    private JSONArray pendingOrdersToJson() {
+    // EFFECTS: returns the given orders as a JSON array
+    private static JSONArray ordersToJson(Iterable<Order> orders) {
         JSONArray jsonArray = new JSONArray();
-        for (Order order : pendingOrders) {
-            jsonArray.put(order.toJson());
-        }
-        return jsonArray;
-    }
-
-    // EFFECTS: returns completed orders as a JSON array
-    private JSONArray completedOrdersToJson() {
-        JSONArray jsonArray = new JSONArray();
-        for (Order order : completedOrders) {
+        for (Order order : orders) {
             jsonArray.put(order.toJson());
         }
         return jsonArray;
@@ -0,0 +1,34 @@
+package model;
+
+/**
+ * Represents an observer of changes to an OrderQueue. Each method is called on
+ * the thread that changed the queue, after the change has been made, so the
+ * queue can be read from inside the call.
+ */
+public interface OrderQueueListener {
+
+    /**
+     * EFFECTS: called after the given order joined the queue: a new order queued
+     * (including a deferred order queued later) or a completed order added
+     * directly; the order is last in the queue for its state
+     */
+    void orderAdded(Order order);
+
+    /**
+     * EFFECTS: called after the given order moved from the previous state to its
+     * current state; the order is last in the queue for its new state
+     */
+    void orderStateChanged(Order order, OrderState previous);
+
+    /**
+     * EFFECTS: called after the given order left the queue's memory, such as a
+     * completed order moved to the archive
+     */
+    void orderRemoved(Order order);
+
+    /**
+     * EFFECTS: called after many orders were added at once (a batch add or a load)
+     * without a call per order; listeners should read the queue again
+     */
+    void bulkLoaded();
+}
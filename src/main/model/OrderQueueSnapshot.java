@@ -0,0 +1,86 @@
+package model;
+
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+/**
+ * Represents an immutable, consistent copy of an order queue's orders at one
+ * moment. Successive snapshots share every list of orders, and every order
+ * snapshot, that did not change in between, so taking one is cheap. Snapshots
+ * can be read and serialized from any thread without locking.
+ */
+public final class OrderQueueSnapshot implements Writable {
+    private final List<List<OrderSnapshot>> ordersByState;
+    private final List<OrderSnapshot> pendingOrders;
+    private final List<OrderSnapshot> deferredOrders;
+    private final int nextOrderId;
+
+    /**
+     * REQUIRES: the given lists are immutable, and ordersByState holds one list per
+     * OrderState, in declaration order
+     * EFFECTS: creates a snapshot of the given orders
+     */
+    OrderQueueSnapshot(List<List<OrderSnapshot>> ordersByState, List<OrderSnapshot> pendingOrders,
+            List<OrderSnapshot> deferredOrders, int nextOrderId) {
+        this.ordersByState = ordersByState;
+        this.pendingOrders = pendingOrders;
+        this.deferredOrders = deferredOrders;
+        this.nextOrderId = nextOrderId;
+    }
+
+    /**
+     * EFFECTS: returns the pending orders, in the same order as
+     * OrderQueue.getPendingOrdersView
+     */
+    public List<OrderSnapshot> getPendingOrders() {
+        return pendingOrders;
+    }
+
+    /**
+     * EFFECTS: returns the completed orders that were held in memory, oldest first
+     */
+    public List<OrderSnapshot> getCompletedOrders() {
+        return getOrdersInState(OrderState.PICKED_UP);
+    }
+
+    /**
+     * REQUIRES: state is not null
+     * EFFECTS: returns the orders that were held in memory in the given state,
+     * oldest first
+     */
+    public List<OrderSnapshot> getOrdersInState(OrderState state) {
+        return ordersByState.get(state.ordinal());
+    }
+
+    /**
+     * EFFECTS: returns the orders that were held back by admission control
+     */
+    public List<OrderSnapshot> getDeferredOrders() {
+        return deferredOrders;
+    }
+
+    /**
+     * EFFECTS: returns the JSON representation OrderQueue.toJson would have given
+     * at the time of the snapshot
+     */
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("nextOrderId", nextOrderId);
+        json.put("pendingOrders", toJson(pendingOrders));
+        json.put("deferredOrders", toJson(deferredOrders));
+        json.put("completedOrders", toJson(getCompletedOrders()));
+        return json;
+    }
+
+    // EFFECTS: returns the given orders as a JSON array
+    private static JSONArray toJson(List<OrderSnapshot> orders) {
+        JSONArray jsonArray = new JSONArray();
+        for (OrderSnapshot order : orders) {
+            jsonArray.put(order.toJson());
+        }
+        return jsonArray;
+    }
+}
@@ -0,0 +1,130 @@
+package model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Represents secondary indexes over a group of orders by customer name, flavor
+ * name and size name. Names are matched case-insensitively. Each index maps a name
+ * to the set of matching orders in the order they were indexed, so orders can be
+ * added or removed in O(log k), where k is the number of distinct names, and
+ * queries return read-only views instead of copies. A name's set is kept once
+ * it exists, even when empty, so a view always reflects later changes.
+ */
+class OrderSearchIndex {
+    private final Map<String, Set<Order>> byCustomer;
+    private final Map<String, Set<Order>> byFlavor;
+    private final Map<String, Set<Order>> bySize;
+
+    /**
+     * EFFECTS: creates empty indexes
+     */
+    OrderSearchIndex() {
+        byCustomer = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        byFlavor = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        bySize = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    /**
+     * REQUIRES: order is not null
+     * MODIFIES: this
+     * EFFECTS: adds the given order to every index
+     */
+    void add(Order order) {
+        addTo(byCustomer, order.getCustomerName(), order);
+        addTo(byFlavor, order.getFlavor().getName(), order);
+        addTo(bySize, order.getSize().getName(), order);
+    }
+
+    /**
+     * REQUIRES: order is not null
+     * MODIFIES: this
+     * EFFECTS: removes the given order from every index
+     */
+    void remove(Order order) {
+        removeFrom(byCustomer, order.getCustomerName(), order);
+        removeFrom(byFlavor, order.getFlavor().getName(), order);
+        removeFrom(bySize, order.getSize().getName(), order);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns a read-only view of the orders for the given customer that
+     * reflects later changes
+     */
+    Collection<Order> findByCustomer(String customerName) {
+        return view(byCustomer, customerName);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns a read-only view of the orders for the given flavor that
+     * reflects later changes
+     */
+    Collection<Order> findByFlavor(String flavorName) {
+        return view(byFlavor, flavorName);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns a read-only view of the orders of the given size that
+     * reflects later changes
+     */
+    Collection<Order> findBySize(String sizeName) {
+        return view(bySize, sizeName);
+    }
+
+    /**
+     * EFFECTS: returns the number of orders for the given customer
+     */
+    int countByCustomer(String customerName) {
+        return count(byCustomer, customerName);
+    }
+
+    /**
+     * EFFECTS: returns the number of orders for the given flavor
+     */
+    int countByFlavor(String flavorName) {
+        return count(byFlavor, flavorName);
+    }
+
+    /**
+     * EFFECTS: returns the number of orders of the given size
+     */
+    int countBySize(String sizeName) {
+        return count(bySize, sizeName);
+    }
+
+    // MODIFIES: index
+    // EFFECTS: adds the order to the set stored under the given name
+    private static void addTo(Map<String, Set<Order>> index, String name, Order order) {
+        index.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(order);
+    }
+
+    // MODIFIES: index
+    // EFFECTS: removes the order from the set stored under the given name, keeping
+    // the set so views of it stay live
+    private static void removeFrom(Map<String, Set<Order>> index, String name, Order order) {
+        Set<Order> orders = index.get(name);
+        if (orders != null) {
+            orders.remove(order);
+        }
+    }
+
+    // MODIFIES: index
+    // EFFECTS: returns a read-only view of the set stored under the given name,
+    // creating an empty set first if there is none
+    private static Collection<Order> view(Map<String, Set<Order>> index, String name) {
+        return Collections.unmodifiableSet(index.computeIfAbsent(name, key -> new LinkedHashSet<>()));
+    }
+
+    // EFFECTS: returns the size of the set stored under the given name
+    private static int count(Map<String, Set<Order>> index, String name) {
+        Set<Order> orders = index.get(name);
+        return orders == null ? 0 : orders.size();
+    }
+}
@@ -0,0 +1,151 @@
+package model;
+
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+/**
+ * Represents an immutable copy of an order's details at one moment. Snapshots
+ * can be read, rendered and serialized from any thread without locking. The
+ * flavor, size and toppings are the shared menu instances, whose names and
+ * prices never change.
+ */
+public final class OrderSnapshot implements Writable {
+    private final int orderId;
+    private final String customerName;
+    private final Flavor flavor;
+    private final Size size;
+    private final List<Topping> toppings;
+    private final String pickupTime;
+    private final OrderState state;
+    private final int estimatedPrepTime;
+    private final long totalPriceCents;
+    private final long completedAtMillis;
+    private final String displayText;
+
+    /**
+     * EFFECTS: creates a snapshot of the given order's current details (see
+     * Order.snapshot, which reuses snapshots)
+     */
+    OrderSnapshot(Order order) {
+        this.orderId = order.getOrderId();
+        this.customerName = order.getCustomerName();
+        this.flavor = order.getFlavor();
+        this.size = order.getSize();
+        this.toppings = List.copyOf(order.getToppingsView());
+        this.pickupTime = order.getPickupTime();
+        this.state = order.getState();
+        this.estimatedPrepTime = order.getEstimatedPrepTime();
+        this.totalPriceCents = order.getTotalPriceCents();
+        this.completedAtMillis = order.getCompletedAtMillis();
+        this.displayText = order.toString();
+    }
+
+    /**
+     * EFFECTS: returns the order ID
+     */
+    public int getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * EFFECTS: returns the customer name
+     */
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    /**
+     * EFFECTS: returns the selected flavor
+     */
+    public Flavor getFlavor() {
+        return flavor;
+    }
+
+    /**
+     * EFFECTS: returns the selected size
+     */
+    public Size getSize() {
+        return size;
+    }
+
+    /**
+     * EFFECTS: returns the selected toppings as an immutable list
+     */
+    public List<Topping> getToppings() {
+        return toppings;
+    }
+
+    /**
+     * EFFECTS: returns the pickup time
+     */
+    public String getPickupTime() {
+        return pickupTime;
+    }
+
+    /**
+     * EFFECTS: returns the lifecycle state of the order
+     */
+    public OrderState getState() {
+        return state;
+    }
+
+    /**
+     * EFFECTS: returns the estimated preparation time in minutes
+     */
+    public int getEstimatedPrepTime() {
+        return estimatedPrepTime;
+    }
+
+    /**
+     * EFFECTS: returns the total price of the order in whole cents
+     */
+    public long getTotalPriceCents() {
+        return totalPriceCents;
+    }
+
+    /**
+     * EFFECTS: returns when the order was completed, in epoch milliseconds, or 0 if
+     * that was not recorded
+     */
+    public long getCompletedAtMillis() {
+        return completedAtMillis;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("orderId", orderId);
+        json.put("customerName", customerName);
+        json.put("flavor", flavor.toJson());
+        json.put("size", size.toJson());
+        json.put("toppings", toppingsToJson());
+        json.put("pickupTime", pickupTime);
+        json.put("isCompleted", state == OrderState.PICKED_UP);
+        json.put("state", state.name());
+        json.put("estimatedPrepTime", estimatedPrepTime);
+        if (completedAtMillis != 0) {
+            json.put("completedAtMillis", completedAtMillis);
+        }
+        return json;
+    }
+
+    // EFFECTS: returns toppings in this snapshot as a JSON array
+    private JSONArray toppingsToJson() {
+        JSONArray jsonArray = new JSONArray();
+        for (Topping topping : toppings) {
+            jsonArray.put(topping.toJson());
+        }
+        return jsonArray;
+    }
+
+    /**
+     * EFFECTS: returns the same text as the order's toString at the time of the
+     * snapshot
+     */
+    @Override
+    public String toString() {
+        return displayText;
+    }
+}
@@ -0,0 +1,42 @@
+package model;
+
+/**
+ * Represents the stages of an order's lifecycle:
+ * PLACED -> PREPARING -> READY -> PICKED_UP, or CANCELLED from any pending stage
+ */
+public enum OrderState {
+    PLACED("Pending"),
+    PREPARING("Preparing"),
+    READY("Ready"),
+    PICKED_UP("Completed"),
+    CANCELLED("Cancelled");
+
+    private final String displayName;
+
+    OrderState(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * EFFECTS: returns the name shown to users for this state
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * EFFECTS: returns true if an order in this state is still waiting to be picked
+     * up, false if it is picked up or cancelled
+     */
+    public boolean isPending() {
+        return this == PLACED || this == PREPARING || this == READY;
+    }
+
+    /**
+     * EFFECTS: returns true if an order may move from this state to the given one;
+     * pending orders may only move forward (stages may be skipped) or be cancelled
+     */
+    public boolean canTransitionTo(OrderState next) {
+        return isPending() && next.ordinal() > ordinal();
+    }
+}
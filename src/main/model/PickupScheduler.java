@@ -0,0 +1,234 @@
+package model;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Represents the pending orders that have not been started yet, kept in a binary
+ * min-heap so that the next order to start can be found in constant time and
+ * added, removed or polled in O(log n). Each order remembers its heap slot, so
+ * completing or cancelling an order from the middle of the heap is O(log n) too.
+ * In PICKUP_TIME mode orders are keyed by latest start time (pickup time minus
+ * estimated preparation time, or arrival time for ASAP orders); in FIFO mode by
+ * arrival alone. Ties are always broken by arrival.
+ */
+class PickupScheduler {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private Order[] heap;
+    private long[] keys;
+    private int[] arrivalMinutes;
+    private int[] arrivalSeqs;
+    private int size;
+    private int nextSeq;
+    private SchedulingMode mode;
+
+    /**
+     * EFFECTS: creates an empty scheduler in the given mode
+     */
+    PickupScheduler(SchedulingMode mode) {
+        this.heap = new Order[INITIAL_CAPACITY];
+        this.keys = new long[INITIAL_CAPACITY];
+        this.arrivalMinutes = new int[INITIAL_CAPACITY];
+        this.arrivalSeqs = new int[INITIAL_CAPACITY];
+        this.mode = mode;
+    }
+
+    /**
+     * EFFECTS: returns the number of orders waiting to be started
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * EFFECTS: returns the current scheduling mode
+     */
+    SchedulingMode getMode() {
+        return mode;
+    }
+
+    /**
+     * EFFECTS: returns true if the given order is waiting in this scheduler
+     */
+    boolean contains(Order order) {
+        int slot = order.scheduleSlot;
+        return slot >= 0 && slot < size && heap[slot] == order;
+    }
+
+    /**
+     * REQUIRES: order is not null and not already in this scheduler,
+     * 0 <= arrivalMinute < 24 * 60
+     * MODIFIES: this, order
+     * EFFECTS: adds the given order, which arrived at the given minute of the day
+     */
+    void add(Order order, int arrivalMinute) {
+        if (size == heap.length) {
+            grow();
+        }
+        int slot = size++;
+        heap[slot] = order;
+        arrivalMinutes[slot] = arrivalMinute;
+        arrivalSeqs[slot] = nextSeq++;
+        keys[slot] = keyOf(slot);
+        order.scheduleSlot = slot;
+        siftUp(slot);
+    }
+
+    /**
+     * EFFECTS: returns the next order to start, or null if none are waiting
+     */
+    Order peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * MODIFIES: this, order
+     * EFFECTS: removes and returns the next order to start, or null if none
+     */
+    Order poll() {
+        Order next = peek();
+        if (next != null) {
+            remove(next);
+        }
+        return next;
+    }
+
+    /**
+     * MODIFIES: this, order
+     * EFFECTS: removes the given order and returns true, or returns false if it
+     * is not waiting in this scheduler
+     */
+    boolean remove(Order order) {
+        if (!contains(order)) {
+            return false;
+        }
+        int slot = order.scheduleSlot;
+        int last = --size;
+        order.scheduleSlot = -1;
+        if (slot != last) {
+            moveEntry(last, slot);
+            siftDown(slot);
+            siftUp(slot);
+        }
+        heap[last] = null;
+        return true;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: switches to the given mode and re-orders the waiting orders in O(n)
+     */
+    void setMode(SchedulingMode mode) {
+        this.mode = mode;
+        for (int slot = 0; slot < size; slot++) {
+            keys[slot] = keyOf(slot);
+        }
+        for (int slot = size / 2 - 1; slot >= 0; slot--) {
+            siftDown(slot);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: removes every order from this scheduler
+     */
+    void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            heap[slot].scheduleSlot = -1;
+            heap[slot] = null;
+        }
+        size = 0;
+    }
+
+    // EFFECTS: returns the heap key of the entry at the given slot; the latest start
+    // minute (0 in FIFO mode) sits in the high word and the arrival sequence below it
+    private long keyOf(int slot) {
+        long primary = 0;
+        if (mode == SchedulingMode.PICKUP_TIME) {
+            primary = latestStartMinute(heap[slot], arrivalMinutes[slot]);
+        }
+        return (primary << 32) | (arrivalSeqs[slot] & 0xFFFFFFFFL);
+    }
+
+    // EFFECTS: returns the latest minute of the day at which the order can be started
+    // and still be ready at pickup; ASAP orders should start when they arrive
+    private static long latestStartMinute(Order order, int arrivalMinute) {
+        LocalTime pickup = order.getPickupLocalTime();
+        if (pickup == null) {
+            return arrivalMinute;
+        }
+        int pickupMinute = pickup.getHour() * 60 + pickup.getMinute();
+        return Math.max(0, Math.min(MINUTES_PER_DAY, pickupMinute - order.getEstimatedPrepTime()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the entry up until its parent's key is no larger
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (keys[parent] <= keys[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the entry down until neither child has a smaller key
+    private void siftDown(int slot) {
+        while (true) {
+            int smallest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && keys[left] < keys[smallest]) {
+                smallest = left;
+            }
+            if (right < size && keys[right] < keys[smallest]) {
+                smallest = right;
+            }
+            if (smallest == slot) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: exchanges the entries at the two slots
+    private void swap(int a, int b) {
+        Order order = heap[a];
+        long key = keys[a];
+        int arrivalMinute = arrivalMinutes[a];
+        int arrivalSeq = arrivalSeqs[a];
+        moveEntry(b, a);
+        heap[b] = order;
+        keys[b] = key;
+        arrivalMinutes[b] = arrivalMinute;
+        arrivalSeqs[b] = arrivalSeq;
+        order.scheduleSlot = b;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the entry at slot from into slot to
+    private void moveEntry(int from, int to) {
+        heap[to] = heap[from];
+        keys[to] = keys[from];
+        arrivalMinutes[to] = arrivalMinutes[from];
+        arrivalSeqs[to] = arrivalSeqs[from];
+        heap[to].scheduleSlot = to;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the capacity of the heap arrays
+    private void grow() {
+        int capacity = heap.length * 2;
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        arrivalMinutes = Arrays.copyOf(arrivalMinutes, capacity);
+        arrivalSeqs = Arrays.copyOf(arrivalSeqs, capacity);
+    }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Parses the free-form pickup times entered for orders ("ASAP", "2:30 PM",
+ * "3:00PM", "14:30") into times of day
+ */
+public final class PickupTimeParser {
+    public static final String ASAP = "ASAP";
+
+    private static final DateTimeFormatter[] FORMATS = {
+            caseInsensitive("h:mm a"),
+            caseInsensitive("h:mma"),
+            caseInsensitive("H:mm")
+    };
+
+    private PickupTimeParser() {
+    }
+
+    /**
+     * EFFECTS: returns the time of day described by pickupTime, or null if the
+     * order is wanted as soon as possible or the text is not a recognized time
+     */
+    public static LocalTime parse(String pickupTime) {
+        if (pickupTime == null) {
+            return null;
+        }
+        String text = pickupTime.trim();
+        if (text.isEmpty() || text.equalsIgnoreCase(ASAP)) {
+            return null;
+        }
+        for (DateTimeFormatter format : FORMATS) {
+            try {
+                return LocalTime.parse(text, format);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns a case-insensitive US-locale formatter for the given pattern
+    private static DateTimeFormatter caseInsensitive(String pattern) {
+        return new DateTimeFormatterBuilder()
+                .parseCaseInsensitive()
+                .appendPattern(pattern)
+                .toFormatter(Locale.US);
+    }
+}
@@ -0,0 +1,170 @@
+package model;
+
+/**
+ * Represents the estimated preparation times of the pending orders, in arrival
+ * order, as a Fenwick (binary indexed) tree. Each order is given the next slot
+ * when it is added and remembers it, so adding or removing any order and asking
+ * how many minutes of work are queued up to and including an order are all
+ * O(log n). Slots freed by removed orders are reclaimed by compacting the tree
+ * when it fills up, which keeps the amortized cost per order constant.
+ */
+class PrepTimeTree {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] tree;
+    private int[] prepTimes;
+    private Order[] orders;
+    private int nextSlot;
+    private int liveCount;
+    private long totalMinutes;
+
+    /**
+     * EFFECTS: creates an empty tree
+     */
+    PrepTimeTree() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * EFFECTS: returns the sum of the preparation times of all orders in the tree
+     */
+    long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    /**
+     * EFFECTS: returns the number of orders in the tree
+     */
+    int size() {
+        return liveCount;
+    }
+
+    /**
+     * EFFECTS: returns true if the given order is in this tree
+     */
+    boolean contains(Order order) {
+        int slot = order.prepSlot;
+        return slot >= 0 && slot < nextSlot && orders[slot] == order;
+    }
+
+    /**
+     * REQUIRES: order is not null and not already in this tree
+     * MODIFIES: this, order
+     * EFFECTS: adds the given order after every order already in the tree
+     */
+    void add(Order order) {
+        if (nextSlot == orders.length) {
+            makeRoom();
+        }
+        int slot = nextSlot++;
+        orders[slot] = order;
+        prepTimes[slot] = order.getEstimatedPrepTime();
+        order.prepSlot = slot;
+        update(slot, prepTimes[slot]);
+        liveCount++;
+        totalMinutes += prepTimes[slot];
+    }
+
+    /**
+     * MODIFIES: this, order
+     * EFFECTS: removes the given order and returns true, or returns false if the
+     * order is not in this tree
+     */
+    boolean remove(Order order) {
+        if (!contains(order)) {
+            return false;
+        }
+        int slot = order.prepSlot;
+        update(slot, -prepTimes[slot]);
+        totalMinutes -= prepTimes[slot];
+        prepTimes[slot] = 0;
+        orders[slot] = null;
+        order.prepSlot = -1;
+        liveCount--;
+        return true;
+    }
+
+    /**
+     * REQUIRES: contains(order)
+     * EFFECTS: returns the total preparation time of the given order and every
+     * order added before it that is still in the tree
+     */
+    long minutesUpTo(Order order) {
+        long sum = 0;
+        for (int i = order.prepSlot + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: removes every order from this tree
+     */
+    void clear() {
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (orders[slot] != null) {
+                orders[slot].prepSlot = -1;
+            }
+        }
+        allocate(INITIAL_CAPACITY);
+        nextSlot = 0;
+        liveCount = 0;
+        totalMinutes = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds delta to the value stored at the given slot
+    private void update(int slot, long delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: frees space for more slots by squeezing out removed orders, and
+    // doubles the capacity if the tree would still be more than half full
+    private void makeRoom() {
+        Order[] live = new Order[liveCount];
+        int[] liveTimes = new int[liveCount];
+        int count = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (orders[slot] != null) {
+                live[count] = orders[slot];
+                liveTimes[count++] = prepTimes[slot];
+            }
+        }
+        int capacity = orders.length;
+        if (liveCount * 2 > capacity) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+        nextSlot = count;
+        System.arraycopy(live, 0, orders, 0, count);
+        System.arraycopy(liveTimes, 0, prepTimes, 0, count);
+        rebuild();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the tree from prepTimes in O(n) and renumbers the orders
+    private void rebuild() {
+        for (int slot = 0; slot < nextSlot; slot++) {
+            orders[slot].prepSlot = slot;
+            tree[slot + 1] += prepTimes[slot];
+        }
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the backing arrays with empty arrays of the given capacity
+    private void allocate(int capacity) {
+        tree = new long[capacity + 1];
+        prepTimes = new int[capacity];
+        orders = new Order[capacity];
+    }
+}
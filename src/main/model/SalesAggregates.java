@@ -0,0 +1,117 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents running sales totals for an order queue, updated as orders are added
+ * and cancelled so that reports never have to walk the orders. Snapshots are
+ * cached until the totals next change, so repeated reads are constant time.
+ */
+class SalesAggregates {
+    // indexes into the {count, cents} pairs stored in the maps
+    private static final int COUNT = 0;
+    private static final int CENTS = 1;
+
+    private long orderCount;
+    private long revenueCents;
+    private final Map<String, long[]> byFlavor;
+    private final Map<String, long[]> bySize;
+    private final Map<String, long[]> byTopping;
+    private SalesSummary cachedSummary;
+
+    /**
+     * EFFECTS: creates empty totals
+     */
+    SalesAggregates() {
+        byFlavor = new HashMap<>();
+        bySize = new HashMap<>();
+        byTopping = new HashMap<>();
+    }
+
+    /**
+     * REQUIRES: order is not null
+     * MODIFIES: this
+     * EFFECTS: adds the given order to the totals
+     */
+    void add(Order order) {
+        apply(order, 1);
+    }
+
+    /**
+     * REQUIRES: order was previously added and its toppings have not changed since
+     * MODIFIES: this
+     * EFFECTS: removes the given order from the totals
+     */
+    void remove(Order order) {
+        apply(order, -1);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: resets the totals and recomputes them from the given orders in one pass
+     */
+    void rebuild(Iterable<Order> pending, Iterable<Order> completed) {
+        orderCount = 0;
+        revenueCents = 0;
+        byFlavor.clear();
+        bySize.clear();
+        byTopping.clear();
+        for (Order order : pending) {
+            apply(order, 1);
+        }
+        for (Order order : completed) {
+            apply(order, 1);
+        }
+        cachedSummary = null;
+    }
+
+    /**
+     * EFFECTS: returns an immutable snapshot of the current totals
+     */
+    SalesSummary snapshot() {
+        if (cachedSummary == null) {
+            cachedSummary = new SalesSummary(orderCount, revenueCents,
+                    column(byFlavor, CENTS), column(byFlavor, COUNT),
+                    column(bySize, CENTS), column(bySize, COUNT),
+                    column(byTopping, CENTS), column(byTopping, COUNT));
+        }
+        return cachedSummary;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds (sign = 1) or subtracts (sign = -1) the given order's figures
+    private void apply(Order order, int sign) {
+        Size size = order.getSize();
+        long orderCents = order.getTotalPriceCents();
+        orderCount += sign;
+        revenueCents += sign * orderCents;
+        bump(byFlavor, order.getFlavor().getName(), sign, size.scaleCents(order.getFlavor().getPriceCents()));
+        bump(bySize, size.getName(), sign, orderCents);
+        for (Topping topping : order.getToppingsView()) {
+            bump(byTopping, topping.getName(), sign, size.scaleCents(topping.getPriceCents()));
+        }
+        cachedSummary = null;
+    }
+
+    // MODIFIES: totals
+    // EFFECTS: adjusts the count and cents stored under the given name, dropping
+    // the entry once its count reaches zero
+    private static void bump(Map<String, long[]> totals, String name, int sign, long cents) {
+        long[] pair = totals.computeIfAbsent(name, key -> new long[2]);
+        pair[COUNT] += sign;
+        pair[CENTS] += sign * cents;
+        if (pair[COUNT] == 0) {
+            totals.remove(name);
+        }
+    }
+
+    // EFFECTS: returns a new map from each name to the given element of its pair
+    private static Map<String, Long> column(Map<String, long[]> totals, int element) {
+        Map<String, Long> result = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[element]);
+        }
+        return result;
+    }
+}
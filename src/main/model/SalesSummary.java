@@ -0,0 +1,102 @@
+package model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Represents an immutable snapshot of the sales figures of an order queue: every
+ * order placed and not cancelled, whether pending or completed. Money amounts are
+ * in cents.
+ */
+public final class SalesSummary {
+    private final long orderCount;
+    private final long revenueCents;
+    private final Map<String, Long> revenueByFlavor;
+    private final Map<String, Long> countByFlavor;
+    private final Map<String, Long> revenueBySize;
+    private final Map<String, Long> countBySize;
+    private final Map<String, Long> revenueByTopping;
+    private final Map<String, Long> countByTopping;
+
+    /**
+     * REQUIRES: the given maps are not modified afterwards
+     * EFFECTS: creates a snapshot of the given figures
+     */
+    SalesSummary(long orderCount, long revenueCents, Map<String, Long> revenueByFlavor,
+            Map<String, Long> countByFlavor, Map<String, Long> revenueBySize, Map<String, Long> countBySize,
+            Map<String, Long> revenueByTopping, Map<String, Long> countByTopping) {
+        this.orderCount = orderCount;
+        this.revenueCents = revenueCents;
+        this.revenueByFlavor = Collections.unmodifiableMap(revenueByFlavor);
+        this.countByFlavor = Collections.unmodifiableMap(countByFlavor);
+        this.revenueBySize = Collections.unmodifiableMap(revenueBySize);
+        this.countBySize = Collections.unmodifiableMap(countBySize);
+        this.revenueByTopping = Collections.unmodifiableMap(revenueByTopping);
+        this.countByTopping = Collections.unmodifiableMap(countByTopping);
+    }
+
+    /**
+     * EFFECTS: returns the number of orders counted
+     */
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * EFFECTS: returns the total revenue in cents
+     */
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    /**
+     * EFFECTS: returns the average ticket in cents, rounded down, or 0 if there are
+     * no orders
+     */
+    public long getAverageTicketCents() {
+        return orderCount == 0 ? 0 : revenueCents / orderCount;
+    }
+
+    /**
+     * EFFECTS: returns the revenue in cents (base price times size) per flavor name
+     */
+    public Map<String, Long> getRevenueByFlavor() {
+        return revenueByFlavor;
+    }
+
+    /**
+     * EFFECTS: returns the number of orders per flavor name
+     */
+    public Map<String, Long> getCountByFlavor() {
+        return countByFlavor;
+    }
+
+    /**
+     * EFFECTS: returns the total order revenue in cents per size name
+     */
+    public Map<String, Long> getRevenueBySize() {
+        return revenueBySize;
+    }
+
+    /**
+     * EFFECTS: returns the number of orders per size name
+     */
+    public Map<String, Long> getCountBySize() {
+        return countBySize;
+    }
+
+    /**
+     * EFFECTS: returns the revenue in cents (topping price times size) per topping
+     * name
+     */
+    public Map<String, Long> getRevenueByTopping() {
+        return revenueByTopping;
+    }
+
+    /**
+     * EFFECTS: returns the number of times each topping name was ordered
+     */
+    public Map<String, Long> getCountByTopping() {
+        return countByTopping;
+    }
+}
@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * Represents the policy an order queue uses to choose the next order to start
+ */
+public enum SchedulingMode {
+    /** orders are started in the order they were placed */
+    FIFO,
+    /** orders are started by latest start time (pickup time minus preparation time) */
+    PICKUP_TIME
+}
@@ -9,6 +9,7 @@ import persistence.Writable;
 public class Size implements Writable {
     private String name;
     private double priceMultiplier;
+    private long multiplierPercent;
 
     /**
      * REQUIRES: sizeName has non-zero length and multiplier > 0
@@ -17,6 +18,7 @@ public class Size implements Writable {
     public Size(String sizeName, double multiplier) {
         this.name = sizeName;
         this.priceMultiplier = multiplier;
+        this.multiplierPercent = Math.round(multiplier * 100);
     }
 
     /**
@@ -33,6 +35,15 @@ public class Size implements Writable {
         return priceMultiplier;
     }
 
+    /**
+     * REQUIRES: cents >= 0
+     * EFFECTS: returns the given amount scaled by this size's price multiplier,
+     * taken to the nearest whole percent, in whole cents rounded half up
+     */
+    public long scaleCents(long cents) {
+        return (cents * multiplierPercent + 50) / 100;
+    }
+
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
@@ -41,6 +52,27 @@ public class Size implements Writable {
         return json;
     }
 
+    /**
+     * EFFECTS: returns true if o is a size with the same name and price multiplier (to the
+     * hundredth)
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Size)) {
+            return false;
+        }
+        Size other = (Size) o;
+        return multiplierPercent == other.multiplierPercent && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + Long.hashCode(multiplierPercent);
+    }
+
     /**
      * EFFECTS: returns a string representation of this size
      */
@@ -7,9 +7,13 @@ import persistence.Writable;
  * Represents a topping available for ice cream orders
  */
 public class Topping implements Writable {
-    private String name;
-    private double price;
-    private boolean isAvailable;
+    private final String name;
+    private final double price;
+    private final long priceCents;
+
+    // position of this topping in the shared MenuCatalog's topping table, or -1
+    // until the catalog assigns one
+    int ordinal = -1;
 
     /**
      * REQUIRES: toppingName has non-zero length and price >= 0
@@ -18,7 +22,7 @@ public class Topping implements Writable {
     public Topping(String toppingName, double price) {
         this.name = toppingName;
         this.price = price;
-        this.isAvailable = true;
+        this.priceCents = Math.round(price * 100);
     }
 
     /**
@@ -36,18 +40,18 @@ public class Topping implements Writable {
     }
 
     /**
-     * EFFECTS: returns true if this topping is available, false otherwise
+     * EFFECTS: returns the price of this topping in whole cents, rounded half up
      */
-    public boolean isAvailable() {
-        return isAvailable;
+    public long getPriceCents() {
+        return priceCents;
     }
 
     /**
-     * MODIFIES: this
-     * EFFECTS: sets the availability of this topping
+     * EFFECTS: returns true unless the shared MenuCatalog has marked this topping
+     * unavailable (see MenuCatalog.setAvailable)
      */
-    public void setAvailable(boolean available) {
-        this.isAvailable = available;
+    public boolean isAvailable() {
+        return MenuCatalog.getInstance().isAvailable(this);
     }
 
     @Override
@@ -55,15 +59,36 @@ public class Topping implements Writable {
         JSONObject json = new JSONObject();
         json.put("name", name);
         json.put("price", price);
-        json.put("isAvailable", isAvailable);
+        json.put("isAvailable", isAvailable());
         return json;
     }
 
+    /**
+     * EFFECTS: returns true if o is a topping with the same name and price (to the
+     * hundredth); availability is not compared
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Topping)) {
+            return false;
+        }
+        Topping other = (Topping) o;
+        return priceCents == other.priceCents && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + Long.hashCode(priceCents);
+    }
+
     /**
      * EFFECTS: returns a string representation of this topping
      */
     @Override
     public String toString() {
-        return name + " ($" + String.format("%.2f", price) + ")";
+        return name + " ($" + Money.formatDollars(priceCents) + ")";
     }
 }
\ No newline at end of file
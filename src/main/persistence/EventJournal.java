@@ -0,0 +1,421 @@
+package persistence;
+
+import model.Event;
+import model.EventSink;
+import model.EventType;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Represents an append-only binary journal of events on disk. Events are
+ * written through a memory-mapped buffer into numbered segment files of a fixed
+ * size (journal-00000.bin, journal-00001.bin, ...). Each event gets the next
+ * sequence number and is stored as one record:
+ *
+ *     length | sequence | epoch nanos | type | order ID | payload | description length | description | CRC32
+ *
+ * Records start on 4-byte boundaries, padded with zeros. The length is written
+ * last with a release store, and readers load it with an acquire load, so a
+ * reader in another thread that sees the length also sees the whole record.
+ * Another process mapping the same file sees the same memory. A segment starts
+ * with a header holding the sequence number of its first record and ends with a
+ * length of -1 when the next segment takes over.
+ * Descriptions are only stored for events whose type cannot rebuild them. A
+ * record whose checksum does not match is skipped, and the records after it are
+ * still read; nothing already written is ever cleared or overwritten.
+ */
+public class EventJournal implements EventSink {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+    private static final int MAGIC = 0x4A524E4C;
+    private static final int HEADER_BYTES = 12;
+    private static final int FIXED_BODY_BYTES = 33;
+    private static final int RECORD_OVERHEAD = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final EventType[] TYPES = EventType.values();
+    // release/acquire access to the big-endian length words of mapped segments
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer buffer;
+    private int segment;
+    private int writePosition;
+    private long nextSequence;
+
+    /**
+     * REQUIRES: directory is a valid directory path and segmentBytes > 64
+     * EFFECTS: opens the journal stored in the given directory, creating the
+     * directory if needed, and continues after its last complete record; throws
+     * IOException if it cannot be created or read
+     */
+    public EventJournal(String directory, int segmentBytes) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(this.directory);
+        open();
+    }
+
+    /**
+     * EFFECTS: returns the sequence number the next appended event will get
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * EFFECTS: returns the path of the segment file with the given number
+     */
+    public Path segmentPath(int number) {
+        return segmentPath(directory, number);
+    }
+
+    /**
+     * REQUIRES: event is not null
+     * MODIFIES: this
+     * EFFECTS: appends the given event to the end of the journal, starting a new
+     * segment if the current one is full, and returns its sequence number; throws
+     * IOException if it cannot be written or does not fit in an empty segment
+     */
+    public long append(Event event) throws IOException {
+        if (buffer == null) {
+            open();
+        }
+        EventType type = event.getType();
+        byte[] description = type.hasPortablePayload() ? NO_BYTES
+                : event.getDescription().getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_BODY_BYTES + description.length;
+        if (align(HEADER_BYTES + RECORD_OVERHEAD + length) + Integer.BYTES > segmentBytes) {
+            throw new IOException("Event is too large for a journal segment");
+        }
+        if (align(writePosition + RECORD_OVERHEAD + length) + Integer.BYTES > buffer.capacity()) {
+            roll();
+        }
+        int body = writePosition + Integer.BYTES;
+        buffer.putLong(body, nextSequence).putLong(body + 8, event.getTimestampNanos())
+                .put(body + 16, (byte) type.ordinal()).putInt(body + 17, event.getOrderId())
+                .putLong(body + 21, event.getPayload()).putInt(body + 29, description.length)
+                .put(body + FIXED_BODY_BYTES, description);
+        buffer.putInt(body + length, checksum(buffer, body, length, crc));
+        INT_VIEW.setRelease(buffer, writePosition, length);
+        writePosition = align(body + length + Integer.BYTES);
+        return nextSequence++;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: appends each event to the journal, oldest first; throws IOException
+     * if the events cannot be written
+     */
+    @Override
+    public void write(List<Event> events) throws IOException {
+        for (Event e : events) {
+            append(e);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: forces the current segment to disk and releases it; a later append
+     * reopens the journal
+     */
+    @Override
+    public void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+    }
+
+    /**
+     * REQUIRES: fromSequence >= 0
+     * EFFECTS: returns a reader over the journal in the given directory that starts
+     * at the first event with a sequence number of at least fromSequence; throws
+     * IOException if the journal cannot be read
+     */
+    public static Reader openReader(String directory, long fromSequence) throws IOException {
+        Path dir = Paths.get(directory);
+        int first = 0;
+        for (int number = 0; Files.exists(segmentPath(dir, number)); number++) {
+            long firstSequence = readFirstSequence(segmentPath(dir, number));
+            if (firstSequence < 0 || firstSequence > fromSequence) {
+                break;
+            }
+            first = number;
+        }
+        return new Reader(dir, first, fromSequence);
+    }
+
+    /**
+     * EFFECTS: passes every complete event in the journal in the given directory,
+     * oldest first, to the given action; throws IOException if the journal cannot
+     * be read
+     */
+    public static void replay(String directory, Consumer<Event> action) throws IOException {
+        Reader reader = openReader(directory, 0);
+        for (Event e = reader.poll(); e != null; e = reader.poll()) {
+            action.accept(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: maps the last segment and positions the writer after its last
+    // complete record, or starts the first segment if there are none
+    private void open() throws IOException {
+        int last = -1;
+        while (Files.exists(segmentPath(last + 1))) {
+            last++;
+        }
+        while (last >= 0 && readFirstSequence(segmentPath(last)) < 0) {
+            Files.delete(segmentPath(last--));
+        }
+        if (last < 0) {
+            nextSequence = 0;
+            startSegment(0);
+        } else {
+            recover(last);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: maps the given segment and skips its records, corrupt ones
+    // included; continues after them if the rest of the segment is unused, or
+    // moves on to a new segment if it was full or holds anything unreadable, so
+    // that no written bytes are overwritten
+    private void recover(int number) throws IOException {
+        buffer = map(segmentPath(number), Files.size(segmentPath(number)));
+        segment = number;
+        nextSequence = buffer.getLong(Integer.BYTES);
+        int position = HEADER_BYTES;
+        for (int end = recordSpanEnd(buffer, position); end > 0; end = recordSpanEnd(buffer, position)) {
+            if (isIntact(buffer, position, crc)) {
+                nextSequence = buffer.getLong(position + Integer.BYTES) + 1;
+            }
+            position = end;
+        }
+        if (isUnused(buffer, position)) {
+            writePosition = position;
+        } else {
+            startSegment(number + 1);
+        }
+    }
+
+    // EFFECTS: returns true if every byte of buf from the given position on is zero
+    private static boolean isUnused(ByteBuffer buf, int position) {
+        for (int i = position; i < buf.capacity(); i++) {
+            if (buf.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the end of the current segment and starts the next one
+    private void roll() throws IOException {
+        INT_VIEW.setRelease(buffer, writePosition, END_OF_SEGMENT);
+        buffer.force();
+        startSegment(segment + 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates and maps the segment with the given number, whose first
+    // record will have the next sequence number
+    private void startSegment(int number) throws IOException {
+        buffer = map(segmentPath(number), segmentBytes);
+        buffer.putLong(Integer.BYTES, nextSequence);
+        buffer.putInt(0, MAGIC);
+        segment = number;
+        writePosition = HEADER_BYTES;
+    }
+
+    // EFFECTS: maps size bytes of the given file for reading and writing,
+    // creating or growing the file if needed
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    // EFFECTS: returns the sequence number of the first record in the given
+    // segment, or -1 if its header has not been written
+    private static long readFirstSequence(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            boolean written = header.position() == HEADER_BYTES && header.getInt(0) == MAGIC;
+            return written ? header.getLong(Integer.BYTES) : -1;
+        }
+    }
+
+    // EFFECTS: returns the position just after the record starting at the given
+    // position, or -1 if no record length that fits in buf is written there; the
+    // record may still be corrupt (see isIntact)
+    private static int recordSpanEnd(ByteBuffer buf, int position) {
+        if (position + Integer.BYTES > buf.capacity()) {
+            return -1;
+        }
+        int length = (int) INT_VIEW.getAcquire(buf, position);
+        int body = position + Integer.BYTES;
+        if (length < FIXED_BODY_BYTES || (long) body + length + Integer.BYTES > buf.capacity()) {
+            return -1;
+        }
+        return align(body + length + Integer.BYTES);
+    }
+
+    // EFFECTS: returns the given position rounded up to a 4-byte boundary
+    private static int align(int position) {
+        return (position + Integer.BYTES - 1) & -Integer.BYTES;
+    }
+
+    // REQUIRES: recordSpanEnd(buf, position) > 0
+    // MODIFIES: crc
+    // EFFECTS: returns true if the record starting at the given position matches
+    // its checksum
+    private static boolean isIntact(ByteBuffer buf, int position, CRC32 crc) {
+        int length = buf.getInt(position);
+        int body = position + Integer.BYTES;
+        return checksum(buf, body, length, crc) == buf.getInt(body + length);
+    }
+
+    // MODIFIES: crc
+    // EFFECTS: returns the CRC32 of length bytes of buf starting at the given position
+    private static int checksum(ByteBuffer buf, int from, int length, CRC32 crc) {
+        crc.reset();
+        buf.limit(from + length).position(from);
+        crc.update(buf);
+        buf.limit(buf.capacity());
+        return (int) crc.getValue();
+    }
+
+    // EFFECTS: returns the path of the segment file with the given number in the
+    // given directory
+    private static Path segmentPath(Path directory, int number) {
+        return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Represents a reader that walks a journal's events in order. When it reaches
+     * the end it returns null, and polling again later picks up events appended
+     * since, so it can tail a journal that another thread or process is writing.
+     */
+    public static class Reader {
+        private final Path directory;
+        private final long fromSequence;
+        private final CRC32 crc = new CRC32();
+        private MappedByteBuffer buffer;
+        private int segment;
+        private int position;
+        private long lastSequence = -1;
+
+        // EFFECTS: creates a reader starting at the given segment that skips events
+        // before fromSequence
+        private Reader(Path directory, int segment, long fromSequence) {
+            this.directory = directory;
+            this.segment = segment;
+            this.fromSequence = fromSequence;
+            this.position = HEADER_BYTES;
+        }
+
+        /**
+         * EFFECTS: returns the sequence number of the last event returned by poll,
+         * or -1 if there has been none
+         */
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        /**
+         * MODIFIES: this
+         * EFFECTS: returns the next complete event in the journal, skipping corrupt
+         * records, or null if none has been written yet; throws IOException if the
+         * journal cannot be read
+         */
+        public Event poll() throws IOException {
+            while (buffer != null || mapSegment()) {
+                int end = recordSpanEnd(buffer, position);
+                boolean intact = end > 0 && isIntact(buffer, position, crc);
+                if (end < 0 || !intact && !isFollowed(end)) {
+                    if (!nextSegment()) {
+                        return null;
+                    }
+                    continue;
+                }
+                int body = position + Integer.BYTES;
+                position = end;
+                long sequence = buffer.getLong(body);
+                if (intact && sequence >= fromSequence) {
+                    lastSequence = sequence;
+                    return decode(body);
+                }
+            }
+            return null;
+        }
+
+        // EFFECTS: returns true if anything was written after the record ending at
+        // the given position, so a corrupt record there is not one still being
+        // written and can be skipped
+        private boolean isFollowed(int end) {
+            return end + Integer.BYTES <= buffer.capacity() && (int) INT_VIEW.getAcquire(buffer, end) != 0;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: moves on to the next segment if it exists; once it does, nothing
+        // more is written to the current one, whose unread rest is unused or
+        // unreadable. Returns true if it moved on
+        private boolean nextSegment() {
+            if (!Files.exists(segmentPath(directory, segment + 1))) {
+                return false;
+            }
+            segment++;
+            buffer = null;
+            position = HEADER_BYTES;
+            return true;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: maps the current segment for reading; returns false if it does not
+        // exist or its header has not been written yet
+        private boolean mapSegment() throws IOException {
+            Path path = segmentPath(directory, segment);
+            if (!Files.exists(path)) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_BYTES) {
+                    return false;
+                }
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer = mapped.getInt(0) == MAGIC ? mapped : null;
+            }
+            return buffer != null;
+        }
+
+        // EFFECTS: returns the event stored in the record body at the given position
+        private Event decode(int body) {
+            EventType type = TYPES[buffer.get(body + 16)];
+            byte[] description = new byte[buffer.getInt(body + 29)];
+            buffer.get(body + FIXED_BODY_BYTES, description);
+            String text = type.hasPortablePayload() ? null : new String(description, StandardCharsets.UTF_8);
+            return new Event(type, buffer.getInt(body + 17), buffer.getLong(body + 21), text,
+                    buffer.getLong(body + 8));
+        }
+    }
+}
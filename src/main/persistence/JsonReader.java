@@ -9,6 +9,8 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.json.*;
@@ -55,8 +57,11 @@ public class JsonReader {
     private OrderQueue parseOrderQueue(JSONObject jsonObject) {
         OrderQueue oq = new OrderQueue();
 
-        addPendingOrders(oq, jsonObject);
-        addCompletedOrders(oq, jsonObject);
+        List<Order> pending = parseOrders(jsonObject.getJSONArray("pendingOrders"));
+        List<Order> completed = parseOrders(jsonObject.getJSONArray("completedOrders"));
+        JSONArray deferredJson = jsonObject.optJSONArray("deferredOrders");
+        List<Order> deferred = deferredJson == null ? List.of() : parseOrders(deferredJson);
+        oq.loadOrders(pending, completed, deferred);
         
         // Set the next order ID after loading all orders to maintain consistency
         if (jsonObject.has("nextOrderId")) {
@@ -66,74 +71,63 @@ public class JsonReader {
         return oq;
     }
 
-    // MODIFIES: oq
-    // EFFECTS: parses pending orders from JSON object and adds them to order queue
-    private void addPendingOrders(OrderQueue oq, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("pendingOrders");
+    // EFFECTS: parses each order in the JSON array and returns them in order
+    private List<Order> parseOrders(JSONArray jsonArray) {
+        List<Order> orders = new ArrayList<>(jsonArray.length());
         for (Object json : jsonArray) {
             JSONObject nextOrder = (JSONObject) json;
-            Order order = parseOrder(nextOrder);
-            oq.addOrder(order);
+            orders.add(parseOrder(nextOrder));
         }
+        return orders;
     }
 
-    // MODIFIES: oq
-    // EFFECTS: parses completed orders from JSON object and adds them to order
-    // queue
-    private void addCompletedOrders(OrderQueue oq, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("completedOrders");
-        for (Object json : jsonArray) {
-            JSONObject nextOrder = (JSONObject) json;
-            Order order = parseOrder(nextOrder);
-            // Add directly to completed orders list
-            oq.addCompletedOrder(order);
-        }
-    }
-
-    // EFFECTS: parses order from JSON object and returns it
-    private Order parseOrder(JSONObject jsonObject) {
+    // EFFECTS: parses order from JSON object and returns it; shared with
+    // OrderArchive, which stores orders in the same format
+    static Order parseOrder(JSONObject jsonObject) {
         String customerName = jsonObject.getString("customerName");
         Flavor flavor = parseFlavor(jsonObject.getJSONObject("flavor"));
         Size size = parseSize(jsonObject.getJSONObject("size"));
         String pickupTime = jsonObject.getString("pickupTime");
         int estimatedPrepTime = jsonObject.getInt("estimatedPrepTime");
 
-        Order order = new Order(customerName, flavor, size, pickupTime, estimatedPrepTime);
-        
-        // Override the auto-generated order ID with the saved one
-        order.setOrderId(jsonObject.getInt("orderId"));
+        // Restore the saved order ID without consuming one from the ID sequence
+        Order order = new Order(jsonObject.getInt("orderId"), customerName, flavor, size, pickupTime,
+                estimatedPrepTime);
 
         addToppings(order, jsonObject);
 
         if (jsonObject.getBoolean("isCompleted")) {
             order.markCompleted();
+        } else if (jsonObject.has("state")) {
+            order.setState(OrderState.valueOf(jsonObject.getString("state")));
         }
+        order.setCompletedAtMillis(jsonObject.optLong("completedAtMillis", 0));
 
         return order;
     }
 
-    // EFFECTS: parses flavor from JSON object and returns it
-    private Flavor parseFlavor(JSONObject jsonObject) {
+    // MODIFIES: MenuCatalog.getInstance()
+    // EFFECTS: parses flavor from JSON object and returns the catalog's instance of
+    // it; the saved availability is ignored, since the catalog owns it
+    private static Flavor parseFlavor(JSONObject jsonObject) {
         String name = jsonObject.getString("name");
         double price = jsonObject.getDouble("price");
-        boolean isAvailable = jsonObject.getBoolean("isAvailable");
 
-        Flavor flavor = new Flavor(name, price);
-        flavor.setAvailable(isAvailable);
-        return flavor;
+        return MenuCatalog.getInstance().getFlavor(name, price);
     }
 
-    // EFFECTS: parses size from JSON object and returns it
-    private Size parseSize(JSONObject jsonObject) {
+    // MODIFIES: MenuCatalog.getInstance()
+    // EFFECTS: parses size from JSON object and returns the catalog's instance of it
+    private static Size parseSize(JSONObject jsonObject) {
         String name = jsonObject.getString("name");
         double priceMultiplier = jsonObject.getDouble("priceMultiplier");
 
-        return new Size(name, priceMultiplier);
+        return MenuCatalog.getInstance().getSize(name, priceMultiplier);
     }
 
     // MODIFIES: order
     // EFFECTS: parses toppings from JSON object and adds them to order
-    private void addToppings(Order order, JSONObject jsonObject) {
+    private static void addToppings(Order order, JSONObject jsonObject) {
         JSONArray jsonArray = jsonObject.getJSONArray("toppings");
         for (Object json : jsonArray) {
             JSONObject nextTopping = (JSONObject) json;
@@ -142,14 +136,13 @@ public class JsonReader {
         }
     }
 
-    // EFFECTS: parses topping from JSON object and returns it
-    private Topping parseTopping(JSONObject jsonObject) {
+    // MODIFIES: MenuCatalog.getInstance()
+    // EFFECTS: parses topping from JSON object and returns the catalog's instance
+    // of it; the saved availability is ignored, since the catalog owns it
+    private static Topping parseTopping(JSONObject jsonObject) {
         String name = jsonObject.getString("name");
         double price = jsonObject.getDouble("price");
-        boolean isAvailable = jsonObject.getBoolean("isAvailable");
 
-        Topping topping = new Topping(name, price);
-        topping.setAvailable(isAvailable);
-        return topping;
+        return MenuCatalog.getInstance().getTopping(name, price);
     }
 }
\ No newline at end of file
@@ -41,9 +41,10 @@ public class JsonWriter {
 
     /**
      * MODIFIES: this
-     * EFFECTS: writes JSON representation of order queue to file
+     * EFFECTS: writes JSON representation of order queue, or of an order queue
+     * snapshot, to file
      */
-    public void write(OrderQueue oq) {
+    public void write(Writable oq) {
         JSONObject json = oq.toJson();
         saveToFile(json.toString(TAB));
     }
@@ -0,0 +1,222 @@
+package persistence;
+
+import model.HistoricalOrderStore;
+import model.Order;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Represents an append-only archive of completed orders on disk. Orders are
+ * written one JSON object per line into numbered segment files
+ * (completed-00000.jsonl, completed-00001.jsonl, ...) of a fixed number of
+ * orders each, so a page of archived orders can be read back by opening only
+ * the segments that hold it. An attached HistoricalOrderStore receives every
+ * archived order, for reporting without reading the segments again.
+ *
+ * Only lines ending in a newline count as archived. An append that fails is cut
+ * back off the segment, and a partial line left by a crash is cut off when the
+ * segment is next opened for appending, so a segment never holds half an order.
+ */
+public class OrderArchive {
+    private static final String SEGMENT_PREFIX = "completed-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+
+    private final Path directory;
+    private final int ordersPerSegment;
+    private int archivedCount;
+    private FileChannel writer;
+    private HistoricalOrderStore history;
+
+    /**
+     * REQUIRES: directory is a valid directory path and ordersPerSegment > 0
+     * EFFECTS: opens the archive stored in the given directory, creating the
+     * directory if needed; throws IOException if it cannot be created or read
+     */
+    public OrderArchive(String directory, int ordersPerSegment) throws IOException {
+        this.directory = Paths.get(directory);
+        this.ordersPerSegment = ordersPerSegment;
+        Files.createDirectories(this.directory);
+        this.archivedCount = countArchivedOrders();
+    }
+
+    /**
+     * EFFECTS: returns the number of orders in the archive
+     */
+    public int size() {
+        return archivedCount;
+    }
+
+    /**
+     * REQUIRES: order is not null
+     * MODIFIES: this
+     * EFFECTS: appends the given order to the end of the archive and writes it
+     * through to disk; throws IOException if it cannot be written, leaving the
+     * archive as it was
+     */
+    public void append(Order order) throws IOException {
+        if (writer == null || archivedCount % ordersPerSegment == 0) {
+            openSegmentFor(archivedCount);
+        }
+        ByteBuffer line = StandardCharsets.UTF_8.encode(order.toJson().toString() + "\n");
+        long goodSize = writer.size();
+        try {
+            while (line.hasRemaining()) {
+                writer.write(line);
+            }
+        } catch (IOException e) {
+            discardFrom(goodSize, e);
+            throw e;
+        }
+        archivedCount++;
+        if (history != null) {
+            history.add(order);
+        }
+    }
+
+    /**
+     * REQUIRES: store is not null
+     * MODIFIES: this, store
+     * EFFECTS: streams every order already in the archive into the given store,
+     * oldest first, then adds each order appended afterwards, so the store always
+     * holds the whole archive; replaces any store attached before. Throws
+     * IOException if the archive cannot be read, leaving no store attached.
+     */
+    public void attachHistory(HistoricalOrderStore store) throws IOException {
+        history = null;
+        forEach(store::add);
+        history = store;
+    }
+
+    /**
+     * REQUIRES: offset >= 0 and limit >= 0
+     * EFFECTS: returns up to limit archived orders, oldest first, starting with the
+     * order at the given position; throws IOException if the archive cannot be read
+     */
+    public List<Order> read(int offset, int limit) throws IOException {
+        List<Order> page = new ArrayList<>();
+        int end = (int) Math.min((long) offset + limit, archivedCount);
+        int position = offset;
+        while (position < end) {
+            int segment = position / ordersPerSegment;
+            int skip = position % ordersPerSegment;
+            int take = Math.min(end - position, ordersPerSegment - skip);
+            readSegment(segment, skip, take, page::add);
+            position += take;
+        }
+        return page;
+    }
+
+    /**
+     * EFFECTS: passes every archived order, oldest first, to the given action one
+     * at a time without holding the whole archive in memory; throws IOException if
+     * the archive cannot be read
+     */
+    public void forEach(Consumer<Order> action) throws IOException {
+        for (int position = 0; position < archivedCount; position += ordersPerSegment) {
+            readSegment(position / ordersPerSegment, 0, Math.min(ordersPerSegment, archivedCount - position), action);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: closes the segment currently open for appending, if any
+     */
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // EFFECTS: passes up to take orders from the given segment, after skipping the
+    // first skip of them, to the given action
+    private void readSegment(int segment, int skip, int take, Consumer<Order> action) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segmentPath(segment), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            for (int i = 0; line != null && i < skip + take; i++) {
+                if (i >= skip) {
+                    action.accept(JsonReader.parseOrder(new JSONObject(line)));
+                }
+                line = reader.readLine();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the segment that the order at the given position belongs in
+    // for appending, closing the previous one, and cuts off any partial line at its end
+    private void openSegmentFor(int position) throws IOException {
+        close();
+        writer = FileChannel.open(segmentPath(position / ordersPerSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writer.truncate(completeLinesSize(writer));
+        writer.position(writer.size());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cuts the open segment back to the given size after a failed write;
+    // if that fails too, closes the segment so the next append reopens and repairs it
+    private void discardFrom(long goodSize, IOException failure) {
+        try {
+            writer.truncate(goodSize);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            try {
+                close();
+            } catch (IOException closeFailure) {
+                failure.addSuppressed(closeFailure);
+            }
+            writer = null;
+        }
+    }
+
+    // EFFECTS: returns the number of bytes of the given segment up to and including
+    // its last newline
+    private static long completeLinesSize(FileChannel channel) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        long end = channel.size();
+        while (end > 0) {
+            last.clear();
+            if (channel.read(last, end - 1) == 1 && last.get(0) == '\n') {
+                break;
+            }
+            end--;
+        }
+        return end;
+    }
+
+    // EFFECTS: returns the number of orders already stored in this archive's
+    // segments, counting only lines that end in a newline
+    private int countArchivedOrders() throws IOException {
+        int count = 0;
+        for (int segment = 0; Files.exists(segmentPath(segment)); segment++) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(segmentPath(segment)))) {
+                for (int b = in.read(); b != -1; b = in.read()) {
+                    if (b == '\n') {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the path of the segment file with the given number
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+}
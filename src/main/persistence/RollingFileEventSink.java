@@ -0,0 +1,125 @@
+package persistence;
+
+import model.Event;
+import model.EventSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Represents an event sink that appends events, one per line, to a log file
+ * (events.log) in a directory. When the file grows past a size limit it is
+ * rolled over to events.1.log, the previous events.1.log to events.2.log, and
+ * so on, keeping a fixed number of old files.
+ */
+public class RollingFileEventSink implements EventSink {
+    private static final String BASE_NAME = "events";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long maxBytesPerFile;
+    private final int maxOldFiles;
+    private BufferedWriter writer;
+    private long currentBytes;
+
+    /**
+     * REQUIRES: directory is a valid directory path, maxBytesPerFile > 0 and
+     * maxOldFiles >= 0
+     * EFFECTS: creates a sink writing to the given directory, creating it if
+     * needed; throws IOException if it cannot be created
+     */
+    public RollingFileEventSink(String directory, long maxBytesPerFile, int maxOldFiles) throws IOException {
+        this.directory = Paths.get(directory);
+        this.maxBytesPerFile = maxBytesPerFile;
+        this.maxOldFiles = maxOldFiles;
+        Files.createDirectories(this.directory);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: appends each event as "millis<TAB>description" to the current log
+     * file, where millis is the event's time in milliseconds since the epoch,
+     * rolling over to a new file whenever the size limit in bytes is passed, then
+     * flushes; throws IOException if the events cannot be written
+     */
+    @Override
+    public void write(List<Event> events) throws IOException {
+        for (Event e : events) {
+            if (writer == null || currentBytes >= maxBytesPerFile) {
+                roll();
+            }
+            String line = e.getTimestampMillis() + "\t" + e.getDescription() + System.lineSeparator();
+            writer.write(line);
+            currentBytes += utf8Length(line);
+        }
+        writer.flush();
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: closes the current log file; throws IOException if it cannot be
+     * closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * EFFECTS: returns the path of the log file with the given number (0 for the
+     * current file)
+     */
+    public Path logFile(int number) {
+        String name = number == 0 ? BASE_NAME + SUFFIX : BASE_NAME + "." + number + SUFFIX;
+        return directory.resolve(name);
+    }
+
+    // EFFECTS: returns the number of bytes the given text takes up in UTF-8
+    private static long utf8Length(String text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the current log file for appending, first shifting the old
+    // files up by one number if the current one is full
+    private void roll() throws IOException {
+        close();
+        Path current = logFile(0);
+        if (Files.exists(current) && Files.size(current) >= maxBytesPerFile) {
+            Files.deleteIfExists(logFile(maxOldFiles));
+            for (int number = maxOldFiles - 1; number >= 0; number--) {
+                if (Files.exists(logFile(number))) {
+                    Files.move(logFile(number), logFile(number + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        currentBytes = Files.exists(current) ? Files.size(current) : 0;
+        writer = Files.newBufferedWriter(current, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+}
@@ -3,10 +3,11 @@ package ui;
 import model.*;
 import persistence.JsonReader;
 import persistence.JsonWriter;
+import persistence.OrderArchive;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Scanner;
 
@@ -15,6 +16,16 @@ import java.util.Scanner;
  */
 public class IceCreamShopApp {
     private static final String JSON_STORE = "./data/orderqueue.json";
+    private static final int SCOOP_STATIONS = 2;
+    private static final int MAX_WAIT_MINUTES = 30;
+    private static final int EVENT_LOG_CAPACITY = 10_000;
+    private static final String ARCHIVE_DIR = "./data/archive";
+    private static final int ARCHIVE_SEGMENT_ORDERS = 1000;
+    // completed orders beyond these limits move from memory to the archive
+    private static final int MAX_RESIDENT_COMPLETED = 500;
+    private static final long MAX_COMPLETED_AGE_MINUTES = 24 * 60;
+    // lookups and estimates are not logged; N keeps one in every N of them
+    private static final int DIAGNOSTIC_SAMPLING_RATE = 0;
     private OrderQueue orderQueue;
     private List<Flavor> availableFlavors;
     private List<Topping> availableToppings;
@@ -22,6 +33,7 @@ public class IceCreamShopApp {
     private Scanner input;
     private JsonWriter jsonWriter;
     private JsonReader jsonReader;
+    private OrderArchive archive;
 
     /**
      * EFFECTS: runs the ice cream shop application
@@ -64,12 +76,18 @@ public class IceCreamShopApp {
             addNewOrder();
         } else if (command.equals("v")) {
             viewPendingOrders();
+        } else if (command.equals("p")) {
+            advanceOrder("start preparing", OrderState.PREPARING);
+        } else if (command.equals("r")) {
+            advanceOrder("mark ready", OrderState.READY);
         } else if (command.equals("c")) {
             completeOrder();
         } else if (command.equals("x")) {
             cancelOrder();
         } else if (command.equals("t")) {
             viewPrepTime();
+        } else if (command.equals("h")) {
+            viewOrderHistory();
         } else if (command.equals("m")) {
             viewMenu();
         } else if (command.equals("s")) {
@@ -86,33 +104,22 @@ public class IceCreamShopApp {
      * EFFECTS: initializes the application with sample data
      */
     private void init() {
+        EventLog.getInstance().setCapacity(EVENT_LOG_CAPACITY);
+        EventLog.getInstance().setSamplingRate(EventCategory.DIAGNOSTIC, DIAGNOSTIC_SAMPLING_RATE);
         orderQueue = new OrderQueue();
+        orderQueue.setCapacity(SCOOP_STATIONS, MAX_WAIT_MINUTES, AdmissionDecision.QUOTED);
+        openArchive();
         input = new Scanner(System.in);
         input.useDelimiter("\r?\n|\r");
         jsonWriter = new JsonWriter(JSON_STORE);
         jsonReader = new JsonReader(JSON_STORE);
 
-        // Initialize available flavors
-        availableFlavors = new ArrayList<>();
-        availableFlavors.add(new Flavor("Vanilla", 3.50));
-        availableFlavors.add(new Flavor("Chocolate", 4.00));
-        availableFlavors.add(new Flavor("Strawberry", 3.75));
-        availableFlavors.add(new Flavor("Mint Chocolate Chip", 4.25));
-        availableFlavors.add(new Flavor("Cookie Dough", 4.50));
-
-        // Initialize available toppings
-        availableToppings = new ArrayList<>();
-        availableToppings.add(new Topping("Sprinkles", 0.50));
-        availableToppings.add(new Topping("Nuts", 1.00));
-        availableToppings.add(new Topping("Chocolate Chips", 0.75));
-        availableToppings.add(new Topping("Berries", 0.25));
-        availableToppings.add(new Topping("Waffle", 0.50));
-
-        // Initialize available sizes
-        availableSizes = new ArrayList<>();
-        availableSizes.add(new Size("Small", 1.0));
-        availableSizes.add(new Size("Medium", 1.25));
-        availableSizes.add(new Size("Large", 1.5));
+        // Menu items come from the shared catalog, so orders reference one
+        // instance per item
+        MenuCatalog catalog = MenuCatalog.getInstance();
+        availableFlavors = catalog.getFlavors();
+        availableToppings = catalog.getToppings();
+        availableSizes = catalog.getSizes();
     }
 
     /**
@@ -123,9 +130,12 @@ public class IceCreamShopApp {
         System.out.println("Select from:");
         System.out.println("\ta -> add new order");
         System.out.println("\tv -> view pending orders");
+        System.out.println("\tp -> start preparing order");
+        System.out.println("\tr -> mark order ready");
         System.out.println("\tc -> complete order");
         System.out.println("\tx -> cancel order");
         System.out.println("\tt -> view preparation time");
+        System.out.println("\th -> view order history");
         System.out.println("\tm -> view menu");
         System.out.println("\ts -> save order queue to file");
         System.out.println("\tl -> load order queue from file");
@@ -163,10 +173,29 @@ public class IceCreamShopApp {
         addToppingsToOrder(newOrder);
 
         // Add to queue
-        orderQueue.addOrder(newOrder);
-        System.out.println("\nOrder added successfully!");
-        System.out.println("Order ID: " + newOrder.getOrderId());
-        System.out.println("Total Price: $" + String.format("%.2f", newOrder.getTotalPrice()));
+        AdmissionResult result = orderQueue.admitOrder(newOrder);
+        printAdmission(newOrder, result);
+    }
+
+    /**
+     * EFFECTS: reports what the queue did with the given new order
+     */
+    private void printAdmission(Order order, AdmissionResult result) {
+        if (result.getDecision() == AdmissionDecision.REJECTED) {
+            System.out.println("\nThe kitchen is too busy; order was not added.");
+            return;
+        }
+        if (result.getDecision() == AdmissionDecision.DEFERRED) {
+            System.out.println("\nOrder held; it will be queued when the kitchen frees up.");
+        } else {
+            System.out.println("\nOrder added successfully!");
+        }
+        System.out.println("Order ID: " + order.getOrderId());
+        System.out.println("Total Price: $" + Money.formatDollars(order.getTotalPriceCents()));
+        if (result.getDecision() == AdmissionDecision.QUOTED) {
+            System.out.println("The kitchen is busy; estimated ready time: "
+                    + result.getReadyTime().withSecond(0).withNano(0));
+        }
     }
 
     /**
@@ -244,7 +273,7 @@ public class IceCreamShopApp {
      */
     private void viewPendingOrders() {
         System.out.println("\n=== Pending Orders ===");
-        List<Order> pendingOrders = orderQueue.getPendingOrders();
+        Collection<Order> pendingOrders = orderQueue.getPendingOrdersView();
 
         if (pendingOrders.isEmpty()) {
             System.out.println("No pending orders.");
@@ -280,6 +309,21 @@ public class IceCreamShopApp {
         }
     }
 
+    /**
+     * MODIFIES: this
+     * EFFECTS: conducts moving a pending order to the given state
+     */
+    private void advanceOrder(String action, OrderState state) {
+        System.out.print("Enter order ID to " + action + ": ");
+        int orderId = input.nextInt();
+
+        if (orderQueue.advanceOrder(orderId, state)) {
+            System.out.println("Order #" + orderId + " is now " + state.getDisplayName() + ".");
+        } else {
+            System.out.println("Order not found or cannot move to " + state.getDisplayName() + ".");
+        }
+    }
+
     /**
      * MODIFIES: this
      * EFFECTS: conducts canceling an order
@@ -316,6 +360,23 @@ public class IceCreamShopApp {
             int prepTime = orderQueue.getNextOrderPrepTime();
             System.out.println("Estimated preparation time for next order: " + prepTime + " minutes");
             System.out.println("Number of pending orders: " + orderQueue.getPendingOrderCount());
+            System.out.println("Total backlog: " + orderQueue.getTotalBacklogMinutes() + " minutes");
+        }
+    }
+
+    /**
+     * EFFECTS: displays every logged event about an order, oldest first
+     */
+    private void viewOrderHistory() {
+        System.out.print("Enter order ID to view history: ");
+        int orderId = input.nextInt();
+
+        List<Event> history = EventLog.getInstance().eventsForOrder(orderId);
+        if (history.isEmpty()) {
+            System.out.println("No history found for order #" + orderId + ".");
+        }
+        for (Event e : history) {
+            System.out.println(e.getDate() + ": " + e.getDescription());
         }
     }
 
@@ -362,6 +423,8 @@ public class IceCreamShopApp {
     private void loadOrderQueue() {
         try {
             orderQueue = jsonReader.read();
+            orderQueue.setCapacity(SCOOP_STATIONS, MAX_WAIT_MINUTES, AdmissionDecision.QUOTED);
+            applyRetention();
             System.out.println("Loaded order queue from " + JSON_STORE);
             System.out.println("Pending orders: " + orderQueue.getPendingOrderCount());
             System.out.println("Completed orders: " + orderQueue.getCompletedOrderCount());
@@ -370,4 +433,30 @@ public class IceCreamShopApp {
             System.out.println("Starting with empty order queue");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: opens the order archive and moves old completed orders into it; keeps
+     * every completed order in memory if the archive cannot be opened
+     */
+    private void openArchive() {
+        try {
+            archive = new OrderArchive(ARCHIVE_DIR, ARCHIVE_SEGMENT_ORDERS);
+        } catch (IOException e) {
+            System.out.println("Unable to open the order archive in " + ARCHIVE_DIR
+                    + "; keeping completed orders in memory");
+        }
+        applyRetention();
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: limits the completed orders the order queue keeps in memory, moving
+     * older ones to the archive, if it is open
+     */
+    private void applyRetention() {
+        if (archive != null) {
+            orderQueue.setCompletedRetention(MAX_RESIDENT_COMPLETED, MAX_COMPLETED_AGE_MINUTES, archive);
+        }
+    }
+}
@@ -3,8 +3,11 @@ package ui;
 import model.*;
 import model.Event;
 import model.EventLog;
+import persistence.EventJournal;
 import persistence.JsonReader;
 import persistence.JsonWriter;
+import persistence.OrderArchive;
+import persistence.RollingFileEventSink;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -16,18 +19,40 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
 /**
  * Graphical User Interface for the Ice Cream Shop Pre-Order System
  */
-public class IceCreamShopAppGUI extends JFrame implements ActionListener {
+public class IceCreamShopAppGUI extends JFrame implements ActionListener, OrderQueueListener {
+    private static final long serialVersionUID = 1L;
     private static final String JSON_STORE = "./data/orderqueue.json";
     private static final int WIDTH = 1200;
     private static final int HEIGHT = 800;
+    private static final int SCOOP_STATIONS = 2;
+    private static final int MAX_WAIT_MINUTES = 30;
+    private static final int EVENT_LOG_CAPACITY = 10_000;
+    private static final String ARCHIVE_DIR = "./data/archive";
+    private static final int ARCHIVE_SEGMENT_ORDERS = 1000;
+    // completed orders beyond these limits move from memory to the archive
+    private static final int MAX_RESIDENT_COMPLETED = 500;
+    private static final long MAX_COMPLETED_AGE_MINUTES = 24 * 60;
+    // lookups and estimates are not logged; N keeps one in every N of them
+    private static final int DIAGNOSTIC_SAMPLING_RATE = 0;
+    private static final String EVENT_LOG_DIR = "./data/events";
+    private static final int EVENT_BUFFER_CAPACITY = 4096;
+    private static final long EVENT_FILE_BYTES = 1_000_000;
+    private static final int EVENT_OLD_FILES = 5;
+    private static final String EVENT_JOURNAL_DIR = "./data/journal";
+    private static final int EVENT_JOURNAL_SEGMENT_BYTES = 4 * 1024 * 1024;
+    // the order in which the order display lists orders of each state
+    private static final OrderState[] DISPLAY_ORDER = {OrderState.READY, OrderState.PREPARING, OrderState.PLACED,
+        OrderState.PICKED_UP};
 
     private OrderQueue orderQueue;
     private List<Flavor> availableFlavors;
@@ -36,9 +61,12 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
 
     private JsonWriter jsonWriter;
     private JsonReader jsonReader;
+    private OrderArchive archive;
 
     // GUI Components
     private JPanel orderDisplayPanel;
+    // the rows shown for each displayed state, keyed by order ID, in display order
+    private Map<OrderState, Map<Integer, JPanel>> orderRows = new EnumMap<>(OrderState.class);
     private JScrollPane orderScrollPane;
     private JTextField customerNameField;
     private JComboBox<Flavor> flavorComboBox;
@@ -73,31 +101,22 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
      * sizes)
      */
     private void initializeData() {
+        EventLog.getInstance().setCapacity(EVENT_LOG_CAPACITY);
+        EventLog.getInstance().setSamplingRate(EventCategory.DIAGNOSTIC, DIAGNOSTIC_SAMPLING_RATE);
+        startEventLogWriter();
         orderQueue = new OrderQueue();
+        orderQueue.setCapacity(SCOOP_STATIONS, MAX_WAIT_MINUTES, AdmissionDecision.QUOTED);
+        orderQueue.addListener(this);
+        openArchive();
         jsonWriter = new JsonWriter(JSON_STORE);
         jsonReader = new JsonReader(JSON_STORE);
 
-        // Initialize available flavors
-        availableFlavors = new ArrayList<>();
-        availableFlavors.add(new Flavor("Vanilla", 3.50));
-        availableFlavors.add(new Flavor("Chocolate", 4.00));
-        availableFlavors.add(new Flavor("Strawberry", 3.75));
-        availableFlavors.add(new Flavor("Mint Chocolate Chip", 4.25));
-        availableFlavors.add(new Flavor("Cookie Dough", 4.50));
-
-        // Initialize available toppings
-        availableToppings = new ArrayList<>();
-        availableToppings.add(new Topping("Sprinkles", 0.50));
-        availableToppings.add(new Topping("Marshmallow", 1.00));
-        availableToppings.add(new Topping("Chocolate Drizzle", 0.75));
-        availableToppings.add(new Topping("Berries", 0.25));
-        availableToppings.add(new Topping("Waffle", 0.50));
-
-        // Initialize available sizes
-        availableSizes = new ArrayList<>();
-        availableSizes.add(new Size("Small", 1.0));
-        availableSizes.add(new Size("Medium", 1.25));
-        availableSizes.add(new Size("Large", 1.5));
+        // Menu items come from the shared catalog, so orders reference one
+        // instance per item
+        MenuCatalog catalog = MenuCatalog.getInstance();
+        availableFlavors = catalog.getFlavors();
+        availableToppings = catalog.getToppings();
+        availableSizes = catalog.getSizes();
     }
 
     /**
@@ -460,34 +479,139 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
 
     /**
      * MODIFIES: this
-     * EFFECTS: updates the order display panel with current orders
+     * EFFECTS: rebuilds the order display panel from the current orders; later
+     * changes patch only the affected rows (see the OrderQueueListener methods)
      */
     private void updateOrderDisplay() {
         orderDisplayPanel.removeAll();
-        List<Order> ordersToShow;
-        if (showOnlyPending) {
-            ordersToShow = orderQueue.getPendingOrders();
-            filterToggle.setText("Show All Orders");
-        } else {
-            ordersToShow = new ArrayList<>();
-            ordersToShow.addAll(orderQueue.getPendingOrders());
-            ordersToShow.addAll(orderQueue.getCompletedOrders());
-            filterToggle.setText("Show Pending Only");
+        for (OrderState state : DISPLAY_ORDER) {
+            orderRows.put(state, new LinkedHashMap<>());
         }
-        if (ordersToShow.isEmpty()) {
+        filterToggle.setText(showOnlyPending ? "Show All Orders" : "Show Pending Only");
+        boolean nothingToShow = orderQueue.isEmpty()
+                && (showOnlyPending || orderQueue.getCompletedOrdersView().isEmpty());
+        if (nothingToShow) {
             JLabel emptyLabel = new JLabel("No orders to display");
             orderDisplayPanel.add(emptyLabel);
         } else {
-            for (Order order : ordersToShow) {
-                JPanel orderPanel = createOrderPanel(order);
-                orderDisplayPanel.add(orderPanel);
-                orderDisplayPanel.add(Box.createVerticalStrut(5));
+            orderQueue.forEachPending(this::addOrderPanel);
+            if (!showOnlyPending) {
+                orderQueue.forEachCompleted(this::addOrderPanel);
             }
         }
         orderDisplayPanel.revalidate();
         orderDisplayPanel.repaint();
     }
 
+    /**
+     * MODIFIES: this
+     * EFFECTS: adds a panel for the given order to the order display panel
+     */
+    private void addOrderPanel(Order order) {
+        addOrderPanel(order, orderDisplayPanel.getComponentCount());
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: inserts a panel for the given order into the order display panel
+     * at the given component position
+     */
+    private void addOrderPanel(Order order, int position) {
+        JPanel row = createOrderPanel(order);
+        orderRows.get(order.getState()).put(order.getOrderId(), row);
+        orderDisplayPanel.add(Box.createVerticalStrut(5), position);
+        orderDisplayPanel.add(row, position);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: removes the panel for the order with the given ID from the order
+     * display panel, if it is shown
+     */
+    private void removeOrderPanel(int orderId) {
+        for (Map<Integer, JPanel> rows : orderRows.values()) {
+            JPanel row = rows.remove(orderId);
+            if (row != null) {
+                int position = orderDisplayPanel.getComponentZOrder(row);
+                orderDisplayPanel.remove(position + 1);
+                orderDisplayPanel.remove(position);
+                return;
+            }
+        }
+    }
+
+    // EFFECTS: returns true if no order rows are shown
+    private boolean hasNoOrderRows() {
+        for (Map<Integer, JPanel> rows : orderRows.values()) {
+            if (!rows.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: shows a panel for the given order after the rows already shown for
+     * its state, if the current filter shows that state
+     */
+    private void showOrderPanel(Order order) {
+        OrderState state = order.getState();
+        if (!state.isPending() && (state != OrderState.PICKED_UP || showOnlyPending)) {
+            return;
+        }
+        if (hasNoOrderRows()) {
+            updateOrderDisplay();
+            return;
+        }
+        int rowsBefore = 0;
+        for (OrderState shown : DISPLAY_ORDER) {
+            rowsBefore += orderRows.get(shown).size();
+            if (shown == state) {
+                break;
+            }
+        }
+        addOrderPanel(order, 2 * rowsBefore);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: redraws the order display panel after rows were patched, showing
+     * the empty message if no rows are left
+     */
+    private void finishOrderDisplayPatch() {
+        if (hasNoOrderRows()) {
+            updateOrderDisplay();
+        } else {
+            orderDisplayPanel.revalidate();
+            orderDisplayPanel.repaint();
+        }
+    }
+
+    @Override
+    public void orderAdded(Order order) {
+        showOrderPanel(order);
+        finishOrderDisplayPatch();
+    }
+
+    @Override
+    public void orderStateChanged(Order order, OrderState previous) {
+        removeOrderPanel(order.getOrderId());
+        showOrderPanel(order);
+        finishOrderDisplayPatch();
+    }
+
+    @Override
+    public void orderRemoved(Order order) {
+        removeOrderPanel(order.getOrderId());
+        finishOrderDisplayPatch();
+    }
+
+    @Override
+    public void bulkLoaded() {
+        updateOrderDisplay();
+    }
+
     /**
      * EFFECTS: creates and returns a panel displaying order information
      */
@@ -505,7 +629,8 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
         panel.add(infoArea, BorderLayout.CENTER);
 
         // Status indicator
-        JLabel statusIndicator = new JLabel(order.isCompleted() ? "✓ COMPLETED" : "PENDING...");
+        JLabel statusIndicator = new JLabel(order.isCompleted() ? "✓ COMPLETED"
+                : order.getState().getDisplayName().toUpperCase() + "...");
         statusIndicator.setForeground(order.isCompleted() ? new Color(139, 87, 59) : new Color(181, 68, 82));
         statusIndicator.setFont(new Font("Arial", Font.BOLD, 12));
         panel.add(statusIndicator, BorderLayout.EAST);
@@ -558,7 +683,7 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
             newOrder.addTopping(topping);
         }
 
-        orderQueue.addOrder(newOrder);
+        AdmissionResult result = orderQueue.admitOrder(newOrder);
 
         // Clear form
         customerNameField.setText("");
@@ -566,9 +691,26 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
         sizeComboBox.setSelectedIndex(0);
         toppingsList.clearSelection();
 
-        updateOrderDisplay();
-        statusLabel.setText("Order #" + newOrder.getOrderId() + " added successfully! Total: $"
-                + String.format("%.2f", newOrder.getTotalPrice()));
+        statusLabel.setText(admissionMessage(newOrder, result));
+    }
+
+    /**
+     * EFFECTS: returns the status message describing what the queue did with the
+     * given new order
+     */
+    private String admissionMessage(Order order, AdmissionResult result) {
+        String total = " Total: $" + Money.formatDollars(order.getTotalPriceCents());
+        if (result.getDecision() == AdmissionDecision.DEFERRED) {
+            return "Order #" + order.getOrderId() + " held; it will be queued when the kitchen frees up." + total;
+        }
+        if (!result.isQueued()) {
+            return "Kitchen is too busy - order was not added";
+        }
+        String message = "Order #" + order.getOrderId() + " added successfully!" + total;
+        if (result.getDecision() == AdmissionDecision.QUOTED) {
+            message += " Ready at about " + result.getReadyTime().withSecond(0).withNano(0);
+        }
+        return message;
     }
 
     /**
@@ -576,7 +718,7 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
      * EFFECTS: prompts user to complete an order
      */
     private void completeOrder() {
-        List<Order> pendingOrders = orderQueue.getPendingOrders();
+        List<Order> pendingOrders = orderQueue.getPendingOrdersSnapshot();
         if (pendingOrders.isEmpty()) {
             statusLabel.setText("No pending orders to complete");
             return;
@@ -600,7 +742,6 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
             int orderId = Integer.parseInt(orderIdStr);
 
             orderQueue.completeOrder(orderId);
-            updateOrderDisplay();
             statusLabel.setText("Order #" + orderId + " marked as completed");
         }
     }
@@ -611,7 +752,13 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
      */
     private void toggleFilter() {
         showOnlyPending = !showOnlyPending;
-        updateOrderDisplay();
+        filterToggle.setText(showOnlyPending ? "Show All Orders" : "Show Pending Only");
+        if (showOnlyPending) {
+            orderQueue.forEachCompleted(order -> removeOrderPanel(order.getOrderId()));
+        } else if (!hasNoOrderRows()) {
+            orderQueue.forEachCompleted(this::addOrderPanel);
+        }
+        finishOrderDisplayPatch();
         statusLabel.setText(showOnlyPending ? "Showing pending orders only" : "Showing all orders");
     }
 
@@ -639,7 +786,12 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
      */
     private void loadOrderQueue() {
         try {
-            orderQueue = jsonReader.read();
+            OrderQueue loaded = jsonReader.read();
+            orderQueue.removeListener(this);
+            orderQueue = loaded;
+            orderQueue.setCapacity(SCOOP_STATIONS, MAX_WAIT_MINUTES, AdmissionDecision.QUOTED);
+            orderQueue.addListener(this);
+            applyRetention();
             updateOrderDisplay();
             statusLabel.setText("Order queue loaded successfully");
             JOptionPane.showMessageDialog(this,
@@ -654,13 +806,61 @@ public class IceCreamShopAppGUI extends JFrame implements ActionListener {
         }
     }
 
+    /**
+     * MODIFIES: EventLog.getInstance()
+     * EFFECTS: starts writing logged events to rolling log files and the binary event
+     * journal in the background, so the file I/O stays off the event dispatch thread;
+     * keeps the log in memory only if the files cannot be opened
+     */
+    private void startEventLogWriter() {
+        try {
+            EventSink files = new RollingFileEventSink(EVENT_LOG_DIR, EVENT_FILE_BYTES, EVENT_OLD_FILES);
+            EventSink journal = new EventJournal(EVENT_JOURNAL_DIR, EVENT_JOURNAL_SEGMENT_BYTES);
+            EventLog.getInstance().startAsync(EVENT_BUFFER_CAPACITY, EventOverflowPolicy.BLOCK,
+                    List.of(files, journal));
+        } catch (IOException e) {
+            System.out.println("Unable to open event log files in " + EVENT_LOG_DIR + " and " + EVENT_JOURNAL_DIR);
+        }
+    }
+
     /**
      * EFFECTS: prints all the logged events to the console
      */
     public void printEventLog() {
         System.out.println("Event Log:");
-        for (Event e : EventLog.getInstance()) {
+        EventLog log = EventLog.getInstance();
+        log.flush();
+        if (log.getDroppedEventCount() > 0) {
+            System.out.println("(" + log.getDroppedEventCount() + " older events were dropped)");
+        }
+        for (Event e : log) {
             System.out.println(e.getDate() + ": " + e.getDescription());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: opens the order archive and moves old completed orders into it; keeps
+     * every completed order in memory if the archive cannot be opened
+     */
+    private void openArchive() {
+        try {
+            archive = new OrderArchive(ARCHIVE_DIR, ARCHIVE_SEGMENT_ORDERS);
+        } catch (IOException e) {
+            System.out.println("Unable to open the order archive in " + ARCHIVE_DIR
+                    + "; keeping completed orders in memory");
+        }
+        applyRetention();
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: limits the completed orders the order queue keeps in memory, moving
+     * older ones to the archive, if it is open
+     */
+    private void applyRetention() {
+        if (archive != null) {
+            orderQueue.setCompletedRetention(MAX_RESIDENT_COMPLETED, MAX_COMPLETED_AGE_MINUTES, archive);
+        }
+    }
+}
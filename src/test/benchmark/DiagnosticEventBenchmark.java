@@ -0,0 +1,66 @@
+package benchmark;
+
+import model.*;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the time and bytes allocated per findOrderById call with the
+ * DIAGNOSTIC event category logging every lookup, sampling one in 100, and
+ * switched off. Run with
+ * java -cp "lib/*:bin" benchmark.DiagnosticEventBenchmark
+ */
+public class DiagnosticEventBenchmark {
+    private static final int ORDERS = 1_000;
+    private static final int LOOKUPS = 2_000_000;
+
+    public static void main(String[] args) {
+        OrderQueue queue = createQueue();
+        EventLog log = EventLog.getInstance();
+        log.setCapacity(10_000);
+        long[] sink = new long[1];
+
+        for (int rate : new int[] {1, 100, 0}) {
+            log.setSamplingRate(EventCategory.DIAGNOSTIC, rate);
+            measure(rate == 0 ? "off" : "1 in " + rate, queue, sink);
+        }
+        System.out.println("(checksum " + sink[0] + ")");
+    }
+
+    // MODIFIES: sink
+    // EFFECTS: runs LOOKUPS lookups after a warm-up and prints the nanoseconds and
+    // bytes allocated per lookup by the current thread
+    private static void measure(String label, OrderQueue queue, long[] sink) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        lookUp(queue, sink);
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        lookUp(queue, sink);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        System.out.printf("%-9s %6.1f ns/lookup %,6d bytes/lookup%n", label,
+                (double) elapsed / LOOKUPS, allocated / LOOKUPS);
+    }
+
+    // MODIFIES: sink
+    // EFFECTS: looks up LOOKUPS order IDs, a tenth of them missing
+    private static void lookUp(OrderQueue queue, long[] sink) {
+        int first = Order.getNextOrderId() - ORDERS;
+        for (int i = 0; i < LOOKUPS; i++) {
+            Order found = queue.findOrderById(first + i % (ORDERS + ORDERS / 10));
+            sink[0] += found == null ? 1 : found.getOrderId();
+        }
+    }
+
+    // EFFECTS: returns a queue of ORDERS pending orders
+    private static OrderQueue createQueue() {
+        OrderQueue queue = new OrderQueue();
+        MenuCatalog catalog = MenuCatalog.getInstance();
+        for (int i = 0; i < ORDERS; i++) {
+            queue.addOrder(new Order("Customer" + i, catalog.getFlavor("Vanilla", 3.50),
+                    catalog.getSize("Small", 1.0), "ASAP", 5));
+        }
+        return queue;
+    }
+}
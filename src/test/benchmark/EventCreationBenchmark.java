@@ -0,0 +1,51 @@
+package benchmark;
+
+import model.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the time and bytes allocated per event created, comparing the
+ * Calendar.getInstance().getTime() stamp Event used before with the current
+ * Event constructor, which reads a cached epoch-nanos clock. Run with
+ * java -cp "lib/*:bin" benchmark.EventCreationBenchmark
+ */
+public class EventCreationBenchmark {
+    private static final int EVENTS = 2_000_000;
+
+    public static void main(String[] args) {
+        long[] sink = new long[1];
+
+        measure("Calendar stamp", i -> Calendar.getInstance().getTime(), sink);
+        measure("Event (clock)", i -> new Event(EventType.ORDER_FOUND, i, 0), sink);
+        System.out.println("(checksum " + sink[0] + ")");
+    }
+
+    // MODIFIES: sink
+    // EFFECTS: creates EVENTS stamps after a warm-up and prints the nanoseconds
+    // and bytes allocated per stamp by the current thread
+    private static void measure(String label, IntFunction<Object> create, long[] sink) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        run(create, sink);
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        run(create, sink);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        System.out.printf("%-15s %6.1f ns/event %,6d bytes/event%n", label,
+                (double) elapsed / EVENTS, allocated / EVENTS);
+    }
+
+    // MODIFIES: sink
+    // EFFECTS: creates EVENTS stamps and folds their times into sink
+    private static void run(IntFunction<Object> create, long[] sink) {
+        for (int i = 0; i < EVENTS; i++) {
+            Object stamp = create.apply(i);
+            sink[0] += stamp instanceof Date ? ((Date) stamp).getTime() : ((Event) stamp).getTimestampNanos();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package benchmark;
+
+import model.*;
+import persistence.EventJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures the time per event to append structured and free-text events to an
+ * EventJournal in a temporary directory, and to replay them all. Run with
+ * java -cp "lib/*:bin" benchmark.EventJournalBenchmark
+ */
+public class EventJournalBenchmark {
+    private static final int EVENTS = 2_000_000;
+    private static final int SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("journal-bench");
+        EventJournal journal = new EventJournal(directory.toString(), SEGMENT_BYTES);
+        Event structured = new Event(EventType.ORDER_FOUND, 42, 0);
+        Event message = new Event("Scheduling mode set to FIFO.");
+
+        append("structured", journal, structured);
+        append("free text", journal, message);
+        journal.close();
+
+        long[] count = new long[1];
+        long start = System.nanoTime();
+        EventJournal.replay(directory.toString(), e -> count[0] += e.getOrderId());
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-12s %6.1f ns/event (%d events)%n", "replay",
+                (double) elapsed / (4L * EVENTS), journal.getNextSequence());
+    }
+
+    // MODIFIES: journal
+    // EFFECTS: appends the event EVENTS times as a warm-up, then EVENTS more times,
+    // and prints the time per append
+    private static void append(String label, EventJournal journal, Event event) throws IOException {
+        for (int i = 0; i < EVENTS; i++) {
+            journal.append(event);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            journal.append(event);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-12s %6.1f ns/event%n", label, (double) elapsed / EVENTS);
+    }
+}
@@ -0,0 +1,84 @@
+package benchmark;
+
+import model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares the heap retained per completed order, and the time to total revenue
+ * by flavor, between keeping full Order objects and keeping them in a
+ * HistoricalOrderStore. Run with
+ * java -cp "lib/*:bin" benchmark.HistoricalOrderStoreBenchmark
+ */
+public class HistoricalOrderStoreBenchmark {
+    private static final int ORDERS = 500_000;
+    private static final int SCANS = 20;
+
+    public static void main(String[] args) {
+        MenuCatalog catalog = MenuCatalog.getInstance();
+        List<Flavor> flavors = catalog.getFlavors();
+        List<Topping> toppings = catalog.getToppings();
+        Size small = catalog.getSizes().get(0);
+
+        long before = usedHeap();
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(i + 1, "Customer" + (i % 5000), flavors.get(i % flavors.size()), small,
+                    "ASAP", 5);
+            order.addTopping(toppings.get(i % toppings.size()));
+            orders.add(order);
+        }
+        EventLog.getInstance().clear();
+        long objectBytes = usedHeap() - before;
+
+        HistoricalOrderStore store = new HistoricalOrderStore();
+        orders.forEach(store::add);
+        long storeStart = usedHeap();
+        long scanObjects = time(() -> revenueByFlavor(orders));
+        long scanStore = time(() -> store.getRevenueByFlavor().size());
+        orders.clear();
+        long storeBytes = storeStart - usedHeap();
+
+        System.out.printf("Order objects  %,6d heap bytes/order, %,8d us per scan%n",
+                objectBytes / ORDERS, scanObjects);
+        System.out.printf("columnar store %,6d heap bytes/order, %,8d us per scan%n",
+                (objectBytes - storeBytes) / ORDERS, scanStore);
+    }
+
+    // EFFECTS: totals revenue by flavor over the given orders and returns the
+    // number of flavors seen
+    private static int revenueByFlavor(List<Order> orders) {
+        Map<String, Long> totals = new HashMap<>();
+        for (Order order : orders) {
+            totals.merge(order.getFlavor().getName(), order.getTotalPriceCents(), Long::sum);
+        }
+        return totals.size();
+    }
+
+    // EFFECTS: returns the mean microseconds per run of the given scan after warm-up
+    private static long time(IntSupplier scan) {
+        int sink = 0;
+        for (int i = 0; i < SCANS; i++) {
+            sink += scan.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            sink += scan.getAsInt();
+        }
+        long elapsed = System.nanoTime() - start;
+        return sink < 0 ? -1 : elapsed / SCANS / 1000;
+    }
+
+    // EFFECTS: returns the heap in use after a full collection
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
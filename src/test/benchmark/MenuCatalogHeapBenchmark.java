@@ -0,0 +1,62 @@
+package benchmark;
+
+import model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained per loaded order when each order gets its own
+ * Flavor, Size and Topping objects (as JsonReader used to create them) compared
+ * with resolving them through the shared MenuCatalog. Run with
+ * java -cp "lib/*:bin" benchmark.MenuCatalogHeapBenchmark
+ */
+public class MenuCatalogHeapBenchmark {
+    private static final int ORDERS = 200_000;
+
+    public static void main(String[] args) {
+        measure("own instances", false);
+        measure("catalog instances", true);
+    }
+
+    // EFFECTS: builds ORDERS orders and prints the heap they retain per order
+    private static void measure(String label, boolean useCatalog) {
+        long before = usedHeap();
+        List<Order> orders = createOrders(useCatalog);
+        long retained = usedHeap() - before;
+        System.out.printf("%-18s %,6d bytes/order (%d orders)%n", label, retained / ORDERS, orders.size());
+    }
+
+    // EFFECTS: returns ORDERS orders of one flavor, size and topping, with menu
+    // items copied per order the way a JSON parser would produce them, or taken
+    // from the shared catalog
+    private static List<Order> createOrders(boolean useCatalog) {
+        MenuCatalog catalog = MenuCatalog.getInstance();
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Flavor flavor = useCatalog ? catalog.getFlavor("Vanilla", 3.50) : new Flavor(copy("Vanilla"), 3.50);
+            Size size = useCatalog ? catalog.getSize("Small", 1.0) : new Size(copy("Small"), 1.0);
+            Topping topping = useCatalog ? catalog.getTopping("Sprinkles", 0.50)
+                    : new Topping(copy("Sprinkles"), 0.50);
+            Order order = new Order(i + 1, "Customer", flavor, size, "ASAP", 5);
+            order.addTopping(topping);
+            orders.add(order);
+        }
+        EventLog.getInstance().clear();
+        return orders;
+    }
+
+    // EFFECTS: returns a new string equal to the given one, as a parser returns
+    private static String copy(String s) {
+        return new String(s.toCharArray());
+    }
+
+    // EFFECTS: returns the heap in use after a full collection
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the per-order cost of adding and completing orders one call at a time
+ * against the batch API (addOrders / completeOrders). Run with
+ * java -cp "lib/*:bin" benchmark.OrderQueueBatchBenchmark
+ */
+public class OrderQueueBatchBenchmark {
+    private static final int BATCH_SIZE = 60;
+    private static final int ROUNDS = 2000;
+    private static final int WARMUP_ROUNDS = 500;
+
+    private static final Flavor VANILLA = new Flavor("Vanilla", 3.50);
+    private static final Size SMALL = new Size("Small", 1.0);
+
+    public static void main(String[] args) {
+        runSingle(WARMUP_ROUNDS);
+        runBatch(WARMUP_ROUNDS);
+
+        double single = runSingle(ROUNDS);
+        double batch = runBatch(ROUNDS);
+        System.out.printf("single calls: %.1f ns/order%n", single);
+        System.out.printf("batch calls:  %.1f ns/order%n", batch);
+        System.out.printf("speed-up:     %.2fx%n", single / batch);
+    }
+
+    // EFFECTS: adds and completes BATCH_SIZE orders per round with single calls and
+    // returns the average nanoseconds spent per order
+    private static double runSingle(int rounds) {
+        long elapsed = 0;
+        for (int r = 0; r < rounds; r++) {
+            List<Order> orders = createOrders();
+            OrderQueue queue = new OrderQueue();
+            long start = System.nanoTime();
+            for (Order order : orders) {
+                queue.addOrder(order);
+            }
+            for (Order order : orders) {
+                queue.completeOrder(order.getOrderId());
+            }
+            elapsed += System.nanoTime() - start;
+            EventLog.getInstance().clear();
+        }
+        return (double) elapsed / ((long) rounds * BATCH_SIZE);
+    }
+
+    // EFFECTS: adds and completes BATCH_SIZE orders per round with batch calls and
+    // returns the average nanoseconds spent per order
+    private static double runBatch(int rounds) {
+        long elapsed = 0;
+        for (int r = 0; r < rounds; r++) {
+            List<Order> orders = createOrders();
+            int[] ids = new int[orders.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = orders.get(i).getOrderId();
+            }
+            OrderQueue queue = new OrderQueue();
+            long start = System.nanoTime();
+            queue.addOrders(orders);
+            queue.completeOrders(ids);
+            elapsed += System.nanoTime() - start;
+            EventLog.getInstance().clear();
+        }
+        return (double) elapsed / ((long) rounds * BATCH_SIZE);
+    }
+
+    // EFFECTS: returns BATCH_SIZE new orders
+    private static List<Order> createOrders() {
+        List<Order> orders = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            orders.add(new Order("School group", VANILLA, SMALL, "ASAP", 5));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import model.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the bytes allocated per listing of a full order queue, comparing the
+ * copying accessors (getPendingOrders, getCompletedOrders, getToppings) used by
+ * the GUI before with the zero-copy views and forEach methods. Run with
+ * java -cp "lib/*:bin" benchmark.OrderViewAllocationBenchmark
+ */
+public class OrderViewAllocationBenchmark {
+    private static final int ORDERS = 500;
+    private static final int LISTINGS = 20_000;
+
+    public static void main(String[] args) {
+        OrderQueue queue = createQueue();
+        long[] sink = new long[1];
+
+        measure("copying accessors", () -> listWithCopies(queue, sink));
+        measure("views and forEach", () -> listWithViews(queue, sink));
+        System.out.println("(checksum " + sink[0] + ")");
+    }
+
+    // EFFECTS: runs the listing LISTINGS times after a warm-up and prints the bytes
+    // allocated per listing by the current thread
+    private static void measure(String label, Runnable listing) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < LISTINGS; i++) {
+            listing.run();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < LISTINGS; i++) {
+            listing.run();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        System.out.printf("%-18s %,10d bytes/listing%n", label, allocated / LISTINGS);
+    }
+
+    // MODIFIES: sink
+    // EFFECTS: walks every order and topping the way updateOrderDisplay used to
+    private static void listWithCopies(OrderQueue queue, long[] sink) {
+        List<Order> orders = new ArrayList<>();
+        orders.addAll(queue.getPendingOrders());
+        orders.addAll(queue.getCompletedOrders());
+        for (Order order : orders) {
+            sink[0] += order.getOrderId() + order.getToppings().size();
+        }
+    }
+
+    // MODIFIES: sink
+    // EFFECTS: walks every order and topping through the zero-copy accessors
+    private static void listWithViews(OrderQueue queue, long[] sink) {
+        queue.forEachPending(order -> sink[0] += order.getOrderId() + order.getToppingsView().size());
+        queue.forEachCompleted(order -> sink[0] += order.getOrderId() + order.getToppingsView().size());
+    }
+
+    // EFFECTS: returns a queue with ORDERS orders, half of them completed
+    private static OrderQueue createQueue() {
+        OrderQueue queue = new OrderQueue();
+        Flavor vanilla = new Flavor("Vanilla", 3.50);
+        Size small = new Size("Small", 1.0);
+        Topping sprinkles = new Topping("Sprinkles", 0.50);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order("Customer", vanilla, small, "ASAP", 5);
+            order.addTopping(sprinkles);
+            orders.add(order);
+        }
+        queue.addOrders(orders);
+        for (int i = 0; i < ORDERS; i += 2) {
+            queue.completeOrders(orders.get(i).getOrderId());
+        }
+        return queue;
+    }
+}
@@ -0,0 +1,143 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Unit and stress tests for the ConcurrentOrderQueue class
+ */
+public class ConcurrentOrderQueueTest {
+    private static final int TERMINALS = 8;
+    private static final int ORDERS_PER_TERMINAL = 2000;
+
+    private ConcurrentOrderQueue queue;
+    private Flavor vanilla;
+    private Size small;
+
+    @BeforeEach
+    void runBefore() {
+        queue = new ConcurrentOrderQueue();
+        vanilla = new Flavor("Vanilla", 3.50);
+        small = new Size("Small", 1.0);
+    }
+
+    @Test
+    void testSingleThreadedBehaviour() {
+        Order order1 = new Order("John", vanilla, small, "2:30 PM", 5);
+        Order order2 = new Order("Jane", vanilla, small, "3:00 PM", 7);
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        assertEquals(2, queue.getPendingOrderCount());
+        assertFalse(queue.isEmpty());
+        assertEquals(5, queue.getNextOrderPrepTime());
+        assertEquals(order2, queue.findOrderById(order2.getOrderId()));
+
+        queue.completeOrder(order1.getOrderId());
+        queue.cancelOrder(order2.getOrderId());
+        assertTrue(queue.isEmpty());
+        assertEquals(1, queue.getCompletedOrderCount());
+        assertEquals(order1, queue.getCompletedOrders().get(0));
+        assertEquals(order1, queue.findCompletedOrderById(order1.getOrderId()));
+        assertTrue(queue.getPendingOrders().isEmpty());
+        assertTrue(queue.toString().contains("Completed Orders: 1"));
+        assertEquals(1, queue.toJson().getJSONArray("completedOrders").length());
+    }
+
+    @Test
+    void testAddCompletedOrder() {
+        Order order = new Order("John", vanilla, small, "2:30 PM", 5);
+        order.markCompleted();
+        queue.addCompletedOrder(order);
+        assertEquals(1, queue.getCompletedOrderCount());
+        assertEquals(0, queue.getPendingOrderCount());
+    }
+
+    @Test
+    void testConcurrentAddsLoseNoOrdersAndDuplicateNoIds() throws InterruptedException {
+        runTerminals(false);
+
+        List<Order> pending = queue.getPendingOrders();
+        assertEquals(TERMINALS * ORDERS_PER_TERMINAL, pending.size());
+        Set<Integer> ids = new HashSet<>();
+        for (Order order : pending) {
+            assertTrue(ids.add(order.getOrderId()), "duplicate order ID " + order.getOrderId());
+        }
+    }
+
+    @Test
+    void testConcurrentAddCompleteAndCancel() throws InterruptedException {
+        runTerminals(true);
+
+        int total = TERMINALS * ORDERS_PER_TERMINAL;
+        int completed = queue.getCompletedOrderCount();
+        int pending = queue.getPendingOrderCount();
+        assertEquals(total / 2, completed);
+        assertEquals(total / 4, pending);
+        Set<Integer> ids = new HashSet<>();
+        for (Order order : queue.getCompletedOrders()) {
+            assertTrue(order.isCompleted());
+            assertTrue(ids.add(order.getOrderId()));
+        }
+        for (Order order : queue.getPendingOrders()) {
+            assertFalse(order.isCompleted());
+            assertTrue(ids.add(order.getOrderId()));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs TERMINALS threads that each add ORDERS_PER_TERMINAL orders at once;
+    // when settle is true, each terminal then completes half and cancels a quarter
+    // of its own orders
+    private void runTerminals(boolean settle) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> terminals = new ArrayList<>();
+        for (int t = 0; t < TERMINALS; t++) {
+            Thread terminal = new Thread(() -> {
+                awaitQuietly(start);
+                List<Order> mine = new ArrayList<>();
+                for (int i = 0; i < ORDERS_PER_TERMINAL; i++) {
+                    Order order = new Order("Till", vanilla, small, "ASAP", 5);
+                    mine.add(order);
+                    queue.addOrder(order);
+                }
+                if (settle) {
+                    settleOrders(mine);
+                }
+            });
+            terminals.add(terminal);
+            terminal.start();
+        }
+        start.countDown();
+        for (Thread terminal : terminals) {
+            terminal.join();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: completes every even-indexed order and cancels every other odd one
+    private void settleOrders(List<Order> orders) {
+        for (int i = 0; i < orders.size(); i++) {
+            if (i % 2 == 0) {
+                queue.completeOrder(orders.get(i).getOrderId());
+            } else if (i % 4 == 1) {
+                queue.cancelOrder(orders.get(i).getOrderId());
+            }
+        }
+    }
+
+    // EFFECTS: waits for the latch to open, ignoring interruption
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
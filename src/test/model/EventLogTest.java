@@ -0,0 +1,366 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for the EventLog class
+ */
+public class EventLogTest {
+    private EventLog log;
+
+    @BeforeEach
+    void runBefore() {
+        log = EventLog.getInstance();
+        log.setCapacity(0);
+        log.setSamplingRate(EventCategory.AUDIT, 1);
+        log.setSamplingRate(EventCategory.DIAGNOSTIC, 1);
+        log.clear();
+    }
+
+    @AfterEach
+    void runAfter() {
+        log.stopAsync();
+        log.setCapacity(0);
+        log.setSamplingRate(EventCategory.AUDIT, 1);
+        log.setSamplingRate(EventCategory.DIAGNOSTIC, 1);
+        log.clear();
+    }
+
+    @Test
+    void testUnboundedByDefault() {
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event("e" + i));
+        }
+        assertEquals(0, log.getCapacity());
+        assertEquals(11, log.size());
+        assertEquals(0, log.getDroppedEventCount());
+    }
+
+    @Test
+    void testBoundedOverwritesOldestAcrossWraparound() {
+        log.setCapacity(4);
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event("e" + i));
+        }
+        assertEquals(4, log.getCapacity());
+        assertEquals(4, log.size());
+        assertEquals(7, log.getDroppedEventCount());
+        assertEquals(List.of("e6", "e7", "e8", "e9"), descriptions());
+    }
+
+    @Test
+    void testSetCapacityKeepsMostRecent() {
+        for (int i = 0; i < 5; i++) {
+            log.logEvent(new Event("e" + i));
+        }
+        log.setCapacity(2);
+        assertEquals(List.of("e3", "e4"), descriptions());
+        assertEquals(4, log.getDroppedEventCount());
+
+        log.setCapacity(0);
+        log.logEvent(new Event("e5"));
+        assertEquals(List.of("e3", "e4", "e5"), descriptions());
+    }
+
+    @Test
+    void testClearResetsDroppedCount() {
+        log.setCapacity(1);
+        log.logEvent(new Event("e0"));
+        log.clear();
+        assertEquals(0, log.getDroppedEventCount());
+        assertEquals(List.of("Event log cleared."), descriptions());
+    }
+
+    @Test
+    void testAsyncDeliversToLogAndSinksInOrder() throws InterruptedException {
+        List<Event> written = Collections.synchronizedList(new ArrayList<>());
+        boolean[] closed = new boolean[1];
+        log.startAsync(64, EventOverflowPolicy.BLOCK, List.of(new EventSink() {
+            @Override
+            public void write(List<Event> events) {
+                written.addAll(events);
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        }));
+        assertTrue(log.isAsync());
+
+        Thread[] producers = new Thread[4];
+        for (int p = 0; p < producers.length; p++) {
+            String prefix = "p" + p + "-";
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    log.logEvent(new Event(prefix + i));
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        log.flush();
+
+        assertEquals(2001, log.size());
+        assertEquals(2000, written.size());
+        assertEquals(0, log.getQueueDepth());
+        assertTrue(log.getPeakQueueDepth() <= 64);
+        assertEquals(0, log.getRejectedEventCount());
+        int last = -1;
+        for (Event e : written) {
+            if (e.getDescription().startsWith("p0-")) {
+                int i = Integer.parseInt(e.getDescription().substring(3));
+                assertEquals(last + 1, i);
+                last = i;
+            }
+        }
+
+        log.stopAsync();
+        assertFalse(log.isAsync());
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    void testAsyncDropPolicyCountsRejectedEvents() {
+        log.startAsync(2, EventOverflowPolicy.DROP, List.of(new EventSink() {
+            @Override
+            public void write(List<Event> events) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+            }
+        }));
+        for (int i = 0; i < 10_000; i++) {
+            log.logEvent(new Event("e" + i));
+        }
+        log.flush();
+
+        assertEquals(10_000, log.size() - 1 + log.getRejectedEventCount());
+        assertTrue(log.getSinkFailureCount() > 0);
+        log.stopAsync();
+        assertEquals(0, log.getRejectedEventCount());
+    }
+
+    @Test
+    void testAsyncSetCapacityDoesNotResendToSinks() {
+        List<Event> written = Collections.synchronizedList(new ArrayList<>());
+        log.startAsync(64, EventOverflowPolicy.BLOCK, List.of(recordingSink(written, 0)));
+        for (int i = 0; i < 5; i++) {
+            log.logEvent(new Event("e" + i));
+        }
+        log.flush();
+        log.setCapacity(3);
+        log.flush();
+
+        assertEquals(5, written.size());
+        assertEquals(List.of("e2", "e3", "e4"), descriptions());
+    }
+
+    @Test
+    void testAsyncClearAndSetCapacityDoNotDeadlockWhenBufferIsFull() {
+        List<Event> written = Collections.synchronizedList(new ArrayList<>());
+        log.startAsync(1, EventOverflowPolicy.BLOCK, List.of(recordingSink(written, 2)));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 20; i++) {
+                log.logEvent(new Event("e" + i));
+            }
+            log.flush();
+            log.setCapacity(100);
+            log.clear();
+            log.stopAsync();
+        });
+        assertFalse(log.isAsync());
+    }
+
+    @Test
+    void testEventsLoggedWhileStoppingAreNotLost() throws InterruptedException {
+        log.startAsync(16, EventOverflowPolicy.BLOCK, List.of(recordingSink(new ArrayList<>(), 0)));
+        Thread[] producers = new Thread[4];
+        for (int p = 0; p < producers.length; p++) {
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    log.logEvent(new Event("x"));
+                }
+            });
+            producers[p].start();
+        }
+        log.stopAsync();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(8001, log.size());
+    }
+
+    // EFFECTS: returns a sink that adds every written event to written, pausing
+    // for the given number of milliseconds per batch
+    private static EventSink recordingSink(List<Event> written, long pauseMillis) {
+        return new EventSink() {
+            @Override
+            public void write(List<Event> events) {
+                written.addAll(events);
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test
+    void testEventsForOrder() {
+        log.logEvent(new Event(EventType.ORDER_ADDED, 7, 0));
+        log.logEvent(new Event(EventType.ORDER_ADDED, 8, 0));
+        log.logEvent(new Event("unrelated"));
+        log.logEvent(new Event(EventType.ORDER_MOVED, 7, OrderState.PREPARING.ordinal()));
+        log.logEvent(new Event(EventType.ORDER_CANCELLED, 7, 0));
+
+        List<Event> history = log.eventsForOrder(7);
+        assertEquals(3, history.size());
+        assertEquals(EventType.ORDER_ADDED, history.get(0).getType());
+        assertEquals(EventType.ORDER_MOVED, history.get(1).getType());
+        assertEquals(EventType.ORDER_CANCELLED, history.get(2).getType());
+        assertEquals(1, log.eventsForOrder(8).size());
+        assertTrue(log.eventsForOrder(9).isEmpty());
+    }
+
+    @Test
+    void testEventsForOrderForgetsOverwrittenEvents() {
+        log.setCapacity(3);
+        log.logEvent(new Event(EventType.ORDER_ADDED, 1, 0));
+        log.logEvent(new Event(EventType.ORDER_ADDED, 2, 0));
+        log.logEvent(new Event(EventType.ORDER_FOUND, 1, 0));
+        log.logEvent(new Event(EventType.ORDER_FOUND, 2, 0));
+
+        List<Event> history = log.eventsForOrder(1);
+        assertEquals(1, history.size());
+        assertEquals(EventType.ORDER_FOUND, history.get(0).getType());
+        assertEquals(2, log.eventsForOrder(2).size());
+
+        log.clear();
+        assertTrue(log.eventsForOrder(2).isEmpty());
+    }
+
+    @Test
+    void testOverwrittenBatchEventLeavesEveryOrdersHistory() {
+        log.setCapacity(2);
+        log.logEvent(new Event(EventType.ORDERS_ADDED, new int[] {1, 2}));
+        log.logEvent(new Event(EventType.ORDER_FOUND, 2, 0));
+        assertEquals(1, log.eventsForOrder(1).size());
+        assertEquals(2, log.eventsForOrder(2).size());
+
+        log.logEvent(new Event(EventType.ORDER_FOUND, 3, 0));
+        assertTrue(log.eventsForOrder(1).isEmpty());
+        assertEquals(EventType.ORDER_FOUND, log.eventsForOrder(2).get(0).getType());
+    }
+
+    @Test
+    void testEventsBetween() {
+        Instant start = Instant.now().minusSeconds(1);
+        Event early = new Event(EventType.MESSAGE, 0, 0, "early", toNanos(start.minusSeconds(60)));
+        Event middle = new Event(EventType.MESSAGE, 0, 0, "middle", toNanos(start.minusSeconds(30)));
+        Event late = new Event(EventType.MESSAGE, 0, 0, "late", toNanos(start.minusSeconds(10)));
+        log.logEvent(late);
+        log.logEvent(early);
+        log.logEvent(middle);
+
+        assertEquals(List.of(early, middle), log.eventsBetween(start.minusSeconds(60), start.minusSeconds(10)));
+        assertEquals(List.of(early, middle, late), log.eventsBetween(start.minusSeconds(61), start.minusSeconds(9)));
+        assertTrue(log.eventsBetween(start.minusSeconds(29), start.minusSeconds(11)).isEmpty());
+        assertTrue(log.eventsBetween(start, start).isEmpty());
+        assertEquals(1, log.eventsBetween(start, Instant.MAX).size());
+        assertEquals(4, log.eventsBetween(Instant.MIN, Instant.MAX).size());
+    }
+
+    @Test
+    void testEventsBetweenForgetsOverwrittenEvents() {
+        log.setCapacity(2);
+        Instant start = Instant.now();
+        log.logEvent(new Event("a"));
+        log.logEvent(new Event("b"));
+        log.logEvent(new Event("c"));
+        List<Event> found = log.eventsBetween(start.minusSeconds(1), Instant.MAX);
+        assertEquals(2, found.size());
+        assertEquals("b", found.get(0).getDescription());
+        assertEquals("c", found.get(1).getDescription());
+    }
+
+    @Test
+    void testDisabledCategoryIsNotLogged() {
+        OrderQueue queue = new OrderQueue();
+        Order order = new Order("Ann", new Flavor("Vanilla", 3.50), new Size("Small", 1.0), "ASAP", 5);
+        log.setCategoryEnabled(EventCategory.DIAGNOSTIC, false);
+        assertFalse(log.isCategoryEnabled(EventCategory.DIAGNOSTIC));
+        assertTrue(log.isCategoryEnabled(EventCategory.AUDIT));
+
+        queue.addOrder(order);
+        assertSame(order, queue.findOrderById(order.getOrderId()));
+        assertNull(queue.findOrderById(-1));
+        queue.getNextOrderPrepTime();
+        log.logEvent(new Event(EventType.ORDER_FOUND, order.getOrderId(), 0));
+
+        assertEquals(List.of("Event log cleared.", "Order with ID " + order.getOrderId() + " was added to the queue."),
+                descriptions());
+        assertFalse(log.shouldLog(EventType.NO_PENDING_ORDERS));
+        assertTrue(log.shouldLog(EventType.ORDER_ADDED));
+    }
+
+    @Test
+    void testSamplingKeepsOneInEvery() {
+        log.setSamplingRate(EventCategory.DIAGNOSTIC, 3);
+        assertEquals(3, log.getSamplingRate(EventCategory.DIAGNOSTIC));
+        for (int i = 0; i < 9; i++) {
+            log.logEvent(EventType.ORDER_NOT_FOUND, i, 0);
+        }
+        List<Event> kept = new ArrayList<>();
+        for (Event e : log) {
+            if (e.getType() == EventType.ORDER_NOT_FOUND) {
+                kept.add(e);
+            }
+        }
+        assertEquals(3, kept.size());
+        assertEquals(0, kept.get(0).getOrderId());
+        assertEquals(3, kept.get(1).getOrderId());
+        assertEquals(6, kept.get(2).getOrderId());
+    }
+
+    @Test
+    void testCategoriesOfTypes() {
+        assertEquals(EventCategory.DIAGNOSTIC, EventType.ORDER_FOUND.getCategory());
+        assertEquals(EventCategory.DIAGNOSTIC, EventType.PREP_TIME_ESTIMATED.getCategory());
+        assertEquals(EventCategory.AUDIT, EventType.ORDER_MOVED.getCategory());
+        assertEquals(EventCategory.AUDIT, EventType.MESSAGE.getCategory());
+    }
+
+    // EFFECTS: returns the given instant in epoch nanoseconds
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    // EFFECTS: returns the descriptions of the logged events, oldest first
+    private List<String> descriptions() {
+        List<String> result = new ArrayList<>();
+        for (Event e : log) {
+            result.add(e.getDescription());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the Event class and its structured event types
+ */
+public class EventTest {
+    private EventLog log;
+
+    @BeforeEach
+    void runBefore() {
+        log = EventLog.getInstance();
+        log.setCapacity(0);
+        log.clear();
+    }
+
+    @Test
+    void testMessageEvent() {
+        Event e = new Event("Hello");
+        assertEquals(EventType.MESSAGE, e.getType());
+        assertEquals(0, e.getOrderId());
+        assertEquals(0, e.getPayload());
+        assertEquals("Hello", e.getDescription());
+    }
+
+    @Test
+    void testStructuredEventDescriptions() {
+        assertEquals("Order with ID 7 was added to the queue.",
+                new Event(EventType.ORDER_ADDED, 7, 0).getDescription());
+        assertEquals("Order with ID 7 was not found in the queue.",
+                new Event(EventType.ORDER_NOT_FOUND, 7, 0).getDescription());
+        assertEquals("Order #7 moved to READY.",
+                new Event(EventType.ORDER_MOVED, 7, OrderState.READY.ordinal()).getDescription());
+        assertEquals("Estimated prep time for next order is 12 minutes.",
+                new Event(EventType.PREP_TIME_ESTIMATED, 7, 12).getDescription());
+        assertEquals("No pending orders.", new Event(EventType.NO_PENDING_ORDERS, 0, 0).getDescription());
+    }
+
+    @Test
+    void testToppingEventNamesTopping() {
+        Order order = new Order("Alex", new Flavor("Vanilla", 3.50), new Size("Small", 1.0), "12:00", 5);
+        order.setOrderId(3);
+        order.addTopping(new Topping("Sprinkles", 0.50));
+        Event last = lastEvent();
+        assertEquals(EventType.TOPPING_ADDED, last.getType());
+        assertEquals(3, last.getOrderId());
+        assertEquals("Topping Sprinkles was added to order #3.", last.getDescription());
+    }
+
+    @Test
+    void testFilterByTypeWithoutParsing() {
+        OrderQueue queue = new OrderQueue();
+        Order order = new Order("Sam", new Flavor("Chocolate", 4.00), new Size("Large", 1.5), "12:00", 5);
+        queue.addOrder(order);
+        queue.findOrderById(order.getOrderId());
+        queue.findOrderById(999);
+        List<Event> notFound = new ArrayList<>();
+        for (Event e : log) {
+            if (e.getType() == EventType.ORDER_NOT_FOUND) {
+                notFound.add(e);
+            }
+        }
+        assertEquals(1, notFound.size());
+        assertEquals(999, notFound.get(0).getOrderId());
+    }
+
+    @Test
+    void testEqualsUsesDescription() {
+        Event e = new Event(EventType.ORDER_FOUND, 1, 0);
+        assertEquals(e, e);
+        assertNotEquals(e, null);
+        assertNotEquals(e, "x");
+        assertEquals(e.hashCode(), e.hashCode());
+    }
+
+    @Test
+    void testTimestampsAreMonotonicAndNearWallClock() {
+        long before = System.currentTimeMillis();
+        Event first = new Event("first");
+        Event second = new Event("second");
+        long after = System.currentTimeMillis();
+        assertTrue(second.getTimestampNanos() >= first.getTimestampNanos());
+        assertTrue(Math.abs(first.getTimestampMillis() - before) < 1000);
+        assertTrue(Math.abs(after - second.getTimestampMillis()) < 1000);
+        assertEquals(first.getTimestampMillis(), first.getDate().getTime());
+        assertEquals(first.getTimestampMillis(), first.getInstant().toEpochMilli());
+        assertEquals(first.getTimestampNanos() % 1_000_000_000L, first.getInstant().getNano());
+    }
+
+    // EFFECTS: returns the most recently logged event
+    private Event lastEvent() {
+        Event last = null;
+        for (Event e : log) {
+            last = e;
+        }
+        return last;
+    }
+}
@@ -44,10 +44,11 @@ public class FlavorTest {
 
     @Test
     void testSetAvailable() {
-        vanilla.setAvailable(false);
+        MenuCatalog.getInstance().setAvailable(vanilla, false);
         assertFalse(vanilla.isAvailable());
-        
-        vanilla.setAvailable(true);
+        assertFalse(MenuCatalog.getInstance().getFlavor(vanilla.getName(), vanilla.getPrice()).isAvailable());
+
+        MenuCatalog.getInstance().setAvailable(vanilla, true);
         assertTrue(vanilla.isAvailable());
     }
 
@@ -59,4 +60,10 @@ public class FlavorTest {
         String expectedChoc = "Chocolate ($4.00)";
         assertEquals(expectedChoc, chocolate.toString());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testGetPriceCents() {
+        assertEquals(350, vanilla.getPriceCents());
+        assertEquals(435, new Flavor("Pistachio", 4.35).getPriceCents());
+    }
+}
@@ -0,0 +1,96 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+/**
+ * Unit tests for the HistoricalOrderStore class
+ */
+public class HistoricalOrderStoreTest {
+    private HistoricalOrderStore store;
+    private Flavor vanilla;
+    private Flavor chocolate;
+    private Size small;
+    private Size large;
+    private Topping sprinkles;
+
+    @BeforeEach
+    void runBefore() {
+        store = new HistoricalOrderStore();
+        vanilla = new Flavor("Vanilla", 3.50);
+        chocolate = new Flavor("Chocolate", 4.00);
+        small = new Size("Small", 1.0);
+        large = new Size("Large", 1.5);
+        sprinkles = new Topping("Sprinkles", 0.50);
+    }
+
+    @Test
+    void testAddAndReadRow() {
+        Order order = new Order(42, "Alice", chocolate, large, "ASAP", 5);
+        order.addTopping(sprinkles);
+        order.setCompletedAtMillis(1_000L);
+        store.add(order);
+
+        assertEquals(1, store.size());
+        assertEquals(42, store.getOrderId(0));
+        assertEquals("Alice", store.getCustomerName(0));
+        assertEquals(chocolate, store.getFlavor(0));
+        assertEquals(large, store.getSize(0));
+        assertEquals(order.getToppingMask(), store.getToppingMask(0));
+        assertEquals(675, store.getTotalCents(0));
+        assertEquals(1_000L, store.getCompletedAtMillis(0));
+    }
+
+    @Test
+    void testGrowsAndAggregates() {
+        for (int i = 0; i < 3000; i++) {
+            Order order = new Order(i + 1, i % 3 == 0 ? "Bob" : "Carol", i % 2 == 0 ? vanilla : chocolate, small,
+                    "ASAP", 5);
+            if (i % 10 == 0) {
+                order.addTopping(sprinkles);
+            }
+            order.setCompletedAtMillis(i);
+            store.add(order);
+        }
+
+        assertEquals(3000, store.size());
+        assertEquals(3000, store.getOrderId(2999));
+        assertEquals(1000, store.countByCustomer("Bob"));
+        assertEquals(0, store.countByCustomer("Dave"));
+        assertEquals(300, store.countWithTopping(sprinkles));
+        assertEquals(350 + 50 + 400, store.getRevenueCents(0, 2));
+
+        Map<String, Long> byFlavor = store.getRevenueByFlavor();
+        assertEquals(1500 * 350 + 300 * 50L, byFlavor.get("Vanilla"));
+        assertEquals(1500 * 400L, byFlavor.get("Chocolate"));
+    }
+
+    @Test
+    void testRejectsToppingsPastTheMask() {
+        Topping extra = sprinkles;
+        for (int number = 0; MenuCatalog.ordinalOf(extra) < Long.SIZE; number++) {
+            extra = new Topping("Mask Limit Test " + number, 0.50);
+        }
+        Order order = new Order(1, "Alice", vanilla, small, "ASAP", 5);
+        order.addTopping(extra);
+
+        assertThrows(IllegalStateException.class, order::getToppingMask);
+        assertThrows(IllegalStateException.class, () -> store.add(order));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testRejectsFlavorsPastShortCodes() {
+        for (int i = 0; i <= Short.MAX_VALUE; i++) {
+            store.add(new Order(i + 1, "Bob", new Flavor("Flavor " + i, 1.00), small, "ASAP", 5));
+        }
+        Order extra = new Order(0, "Bob", new Flavor("One Flavor Too Many", 1.00), small, "ASAP", 5);
+
+        assertThrows(IllegalStateException.class, () -> store.add(extra));
+        assertEquals(Short.MAX_VALUE + 1, store.size());
+        assertEquals("Flavor " + Short.MAX_VALUE, store.getFlavor(Short.MAX_VALUE).getName());
+    }
+}
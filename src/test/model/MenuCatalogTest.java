@@ -0,0 +1,90 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MenuCatalog class
+ */
+public class MenuCatalogTest {
+    private MenuCatalog catalog;
+
+    @BeforeEach
+    void runBefore() {
+        catalog = new MenuCatalog();
+    }
+
+    @Test
+    void testGetReturnsCanonicalInstances() {
+        Flavor vanilla = catalog.getFlavor("Vanilla", 3.50);
+        assertSame(vanilla, catalog.getFlavor("Vanilla", 3.5));
+        assertNotSame(vanilla, catalog.getFlavor("Vanilla", 3.75));
+        assertSame(catalog.getTopping("Sprinkles", 0.50), catalog.getTopping("Sprinkles", 0.50));
+        assertSame(catalog.getSize("Large", 1.5), catalog.getSize("Large", 1.50));
+        assertTrue(catalog.getFlavors().isEmpty());
+    }
+
+    @Test
+    void testAddToMenu() {
+        Flavor vanilla = catalog.addFlavor("Vanilla", 3.50);
+        assertSame(vanilla, catalog.addFlavor("Vanilla", 3.50));
+        assertSame(vanilla, catalog.getFlavor("Vanilla", 3.50));
+        catalog.addTopping("Sprinkles", 0.50);
+        catalog.addSize("Small", 1.0);
+        catalog.addSize("Large", 1.5);
+
+        assertEquals(1, catalog.getFlavors().size());
+        assertEquals(1, catalog.getToppings().size());
+        assertEquals("Large", catalog.getSizes().get(1).getName());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getSizes().clear());
+    }
+
+    @Test
+    void testStandardMenu() {
+        MenuCatalog standard = MenuCatalog.getInstance();
+        assertSame(standard, MenuCatalog.getInstance());
+        assertEquals("Vanilla", standard.getFlavors().get(0).getName());
+        assertSame(standard.getFlavors().get(0), standard.getFlavor("Vanilla", 3.50));
+        assertEquals(7, standard.getToppings().size());
+        assertSame(standard.getToppings().get(5), standard.getTopping("Nuts", 1.00));
+        assertSame(standard.getToppings().get(6), standard.getTopping("Chocolate Chips", 0.75));
+        assertEquals(3, standard.getSizes().size());
+    }
+
+    @Test
+    void testToppingOrdinals() {
+        Topping sprinkles = MenuCatalog.getInstance().getTopping("Sprinkles", 0.50);
+        int ordinal = MenuCatalog.ordinalOf(sprinkles);
+        assertEquals(ordinal, MenuCatalog.ordinalOf(new Topping("Sprinkles", 0.50)));
+        assertSame(sprinkles, MenuCatalog.toppingAt(ordinal));
+
+        Topping fudge = new Topping("Hot Fudge Test", 1.25);
+        int fudgeOrdinal = MenuCatalog.ordinalOf(fudge);
+        assertNotEquals(ordinal, fudgeOrdinal);
+        assertSame(fudge, MenuCatalog.toppingAt(fudgeOrdinal));
+        assertSame(fudge, MenuCatalog.getInstance().getTopping("Hot Fudge Test", 1.25));
+    }
+
+    @Test
+    void testFindOrdinalDoesNotRegister() {
+        Topping sprinkles = MenuCatalog.getInstance().getTopping("Sprinkles", 0.50);
+        int ordinal = MenuCatalog.ordinalOf(sprinkles);
+        assertEquals(ordinal, MenuCatalog.findOrdinal(new Topping("Sprinkles", 0.50)));
+
+        Topping unknown = new Topping("Never Ordered Test", 2.25);
+        assertEquals(-1, MenuCatalog.findOrdinal(unknown));
+        assertEquals(0, new HistoricalOrderStore().countWithTopping(unknown));
+        assertEquals(-1, MenuCatalog.findOrdinal(unknown));
+    }
+
+    @Test
+    void testMenuItemEquality() {
+        assertEquals(new Flavor("Vanilla", 3.50), new Flavor("Vanilla", 3.5));
+        assertEquals(new Flavor("Vanilla", 3.50).hashCode(), new Flavor("Vanilla", 3.5).hashCode());
+        assertNotEquals(new Flavor("Vanilla", 3.50), new Flavor("Vanilla", 3.75));
+        assertNotEquals(new Topping("Nuts", 1.00), new Topping("Pecans", 1.00));
+        assertEquals(new Size("Large", 1.5), new Size("Large", 1.5));
+        assertNotEquals(new Size("Large", 1.5), "Large");
+    }
+}
@@ -0,0 +1,26 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Money class
+ */
+public class MoneyTest {
+
+    @Test
+    void testFormatDollars() {
+        assertEquals("0.00", Money.formatDollars(0));
+        assertEquals("0.05", Money.formatDollars(5));
+        assertEquals("3.50", Money.formatDollars(350));
+        assertEquals("1234.99", Money.formatDollars(123_499));
+        assertEquals("-0.05", Money.formatDollars(-5));
+    }
+
+    @Test
+    void testAppendDollars() {
+        StringBuilder sb = new StringBuilder("$");
+        assertSame(sb, Money.appendDollars(sb, 1010));
+        assertEquals("$10.10", sb.toString());
+    }
+}
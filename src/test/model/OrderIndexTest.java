@@ -0,0 +1,92 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OrderIndex class
+ */
+public class OrderIndexTest {
+    private OrderIndex index;
+    private Flavor vanilla;
+    private Size small;
+
+    @BeforeEach
+    void runBefore() {
+        index = new OrderIndex();
+        vanilla = new Flavor("Vanilla", 3.50);
+        small = new Size("Small", 1.0);
+    }
+
+    @Test
+    void testEmptyIndex() {
+        assertEquals(0, index.size());
+        assertNull(index.get(1));
+        assertNull(index.remove(1));
+    }
+
+    @Test
+    void testPutAndGet() {
+        Order order = createOrder(42);
+        index.put(order);
+        assertEquals(1, index.size());
+        assertEquals(order, index.get(42));
+        assertNull(index.get(43));
+    }
+
+    @Test
+    void testPutReplacesSameId() {
+        Order first = createOrder(7);
+        Order second = createOrder(7);
+        index.put(first);
+        index.put(second);
+        assertEquals(1, index.size());
+        assertEquals(second, index.get(7));
+    }
+
+    @Test
+    void testRemove() {
+        Order order = createOrder(3);
+        index.put(order);
+        assertEquals(order, index.remove(3));
+        assertEquals(0, index.size());
+        assertNull(index.get(3));
+    }
+
+    @Test
+    void testManyOrdersWithRemovals() {
+        Order[] orders = new Order[1000];
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = createOrder(i * 16);
+            index.put(orders[i]);
+        }
+        for (int i = 0; i < orders.length; i += 2) {
+            assertEquals(orders[i], index.remove(i * 16));
+        }
+        assertEquals(500, index.size());
+        for (int i = 0; i < orders.length; i++) {
+            if (i % 2 == 0) {
+                assertNull(index.get(i * 16));
+            } else {
+                assertEquals(orders[i], index.get(i * 16));
+            }
+        }
+    }
+
+    @Test
+    void testClear() {
+        index.put(createOrder(1));
+        index.put(createOrder(2));
+        index.clear();
+        assertEquals(0, index.size());
+        assertNull(index.get(1));
+    }
+
+    // EFFECTS: returns a new order with the given ID
+    private Order createOrder(int orderId) {
+        Order order = new Order("John", vanilla, small, "2:30 PM", 5);
+        order.setOrderId(orderId);
+        return order;
+    }
+}
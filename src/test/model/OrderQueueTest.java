@@ -2,8 +2,23 @@ package model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+import persistence.OrderArchive;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Unit tests for the OrderQueue class
  */
@@ -186,6 +201,654 @@ public class OrderQueueTest {
         assertEquals(1, queue.getCompletedOrderCount());
     }
 
+    @Test
+    void testFindCompletedOrderById() {
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        assertNull(queue.findCompletedOrderById(order1.getOrderId()));
+
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(order1, queue.findCompletedOrderById(order1.getOrderId()));
+        assertNull(queue.findOrderById(order1.getOrderId()));
+        assertNull(queue.findCompletedOrderById(order2.getOrderId()));
+        assertNull(queue.findCompletedOrderById(999));
+    }
+
+    @Test
+    void testPendingOrdersKeepInsertionOrderAfterRemoval() {
+        Order order3 = new Order("Mochi", vanilla, small, "3:30 PM", 4);
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        queue.addOrder(order3);
+
+        queue.cancelOrder(order2.getOrderId());
+        assertEquals(2, queue.getPendingOrders().size());
+        assertEquals(order1, queue.getPendingOrders().get(0));
+        assertEquals(order3, queue.getPendingOrders().get(1));
+        assertNull(queue.findOrderById(order2.getOrderId()));
+
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(order3, queue.getPendingOrders().get(0));
+        assertEquals(4, queue.getNextOrderPrepTime());
+    }
+
+    @Test
+    void testDefaultSchedulingModeIsFifo() {
+        assertEquals(SchedulingMode.FIFO, queue.getSchedulingMode());
+        queue.addOrder(order2);
+        queue.addOrder(order1);
+        assertEquals(order2, queue.peekNextOrderToStart());
+        assertEquals(7, queue.getNextOrderPrepTime());
+    }
+
+    @Test
+    void testPickupTimeScheduling() {
+        queue.setClock(Clock.fixed(Instant.parse("2025-08-04T13:00:00Z"), ZoneOffset.UTC));
+        Order preOrder = new Order("Mochi", vanilla, small, "3:00 PM", 10);
+        Order walkIn = new Order("Tiya", vanilla, small, "ASAP", 5);
+        queue.addOrder(preOrder);
+        queue.addOrder(walkIn);
+        queue.setSchedulingMode(SchedulingMode.PICKUP_TIME);
+
+        assertEquals(SchedulingMode.PICKUP_TIME, queue.getSchedulingMode());
+        assertEquals(walkIn, queue.peekNextOrderToStart());
+        assertEquals(5, queue.getNextOrderPrepTime());
+        assertEquals(walkIn, queue.pollNextOrderToStart());
+        assertEquals(preOrder, queue.pollNextOrderToStart());
+        assertNull(queue.pollNextOrderToStart());
+        assertNull(queue.peekNextOrderToStart());
+        assertEquals(0, queue.getNextOrderPrepTime());
+
+        // started orders remain pending until completed
+        assertEquals(2, queue.getPendingOrderCount());
+    }
+
+    @Test
+    void testCompletedAndCancelledOrdersLeaveSchedule() {
+        queue.setSchedulingMode(SchedulingMode.PICKUP_TIME);
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        queue.cancelOrder(order1.getOrderId());
+        assertEquals(order2, queue.peekNextOrderToStart());
+        queue.completeOrder(order2.getOrderId());
+        assertNull(queue.peekNextOrderToStart());
+    }
+
+    @Test
+    void testEstimatedWaitAndBacklog() {
+        Order order3 = new Order("Mochi", vanilla, small, "3:30 PM", 4);
+        assertEquals(0, queue.getTotalBacklogMinutes());
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        queue.addOrder(order3);
+
+        assertEquals(16, queue.getTotalBacklogMinutes());
+        assertEquals(5, queue.getEstimatedWaitMinutes(order1.getOrderId()));
+        assertEquals(12, queue.getEstimatedWaitMinutes(order2.getOrderId()));
+        assertEquals(16, queue.getEstimatedWaitMinutes(order3.getOrderId()));
+
+        queue.completeOrder(order2.getOrderId());
+        assertEquals(9, queue.getEstimatedWaitMinutes(order3.getOrderId()));
+        assertEquals(-1, queue.getEstimatedWaitMinutes(order2.getOrderId()));
+
+        queue.cancelOrder(order1.getOrderId());
+        assertEquals(4, queue.getEstimatedWaitMinutes(order3.getOrderId()));
+        assertEquals(4, queue.getTotalBacklogMinutes());
+        assertEquals(-1, queue.getEstimatedWaitMinutes(999));
+    }
+
+    @Test
+    void testEstimatedReadyTime() {
+        queue.setClock(Clock.fixed(Instant.parse("2025-08-04T13:00:00Z"), ZoneOffset.UTC));
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        assertEquals(LocalTime.of(13, 12), queue.getEstimatedReadyTime(order2.getOrderId()));
+        assertNull(queue.getEstimatedReadyTime(999));
+    }
+
+    @Test
+    void testAddOrders() {
+        Order order3 = new Order("Mochi", vanilla, small, "3:30 PM", 4);
+        queue.addOrders(Arrays.asList(order1, order2, order3));
+        assertEquals(3, queue.getPendingOrderCount());
+        assertEquals(order1, queue.getPendingOrders().get(0));
+        assertEquals(order3, queue.getPendingOrders().get(2));
+        assertEquals(order2, queue.findOrderById(order2.getOrderId()));
+        assertEquals(16, queue.getTotalBacklogMinutes());
+    }
+
+    @Test
+    void testAddOrdersLogsOneEvent() {
+        EventLog.getInstance().clear();
+        queue.addOrders(Arrays.asList(order1, order2));
+        int count = 0;
+        for (Event e : EventLog.getInstance()) {
+            count++;
+        }
+        assertEquals(2, count); // "Event log cleared." plus the batch summary
+    }
+
+    @Test
+    void testCompleteOrders() {
+        Order order3 = new Order("Mochi", vanilla, small, "3:30 PM", 4);
+        queue.addOrders(Arrays.asList(order1, order2, order3));
+        assertEquals(2, queue.completeOrders(order1.getOrderId(), order3.getOrderId(), 999));
+        assertTrue(order1.isCompleted());
+        assertTrue(order3.isCompleted());
+        assertFalse(order2.isCompleted());
+        assertEquals(1, queue.getPendingOrderCount());
+        assertEquals(2, queue.getCompletedOrderCount());
+        assertEquals(order3, queue.getCompletedOrders().get(1));
+        assertEquals(7, queue.getTotalBacklogMinutes());
+
+        assertEquals(0, queue.completeOrders(order1.getOrderId()));
+        assertEquals(0, queue.completeOrders());
+    }
+
+    @Test
+    void testBatchEventsAppearInEachOrdersHistory() {
+        EventLog.getInstance().clear();
+        queue.addOrders(Arrays.asList(order1, order2));
+        queue.completeOrders(order1.getOrderId(), 999);
+        queue.cancelOrders(order2.getOrderId());
+
+        List<Event> history = EventLog.getInstance().eventsForOrder(order1.getOrderId());
+        assertEquals(EventType.ORDERS_ADDED, history.get(0).getType());
+        assertArrayEquals(new int[] {order1.getOrderId(), order2.getOrderId()}, history.get(0).getOrderIds());
+        assertEquals(2, history.get(0).getPayload());
+        assertEquals(EventType.ORDERS_COMPLETED, history.get(history.size() - 1).getType());
+        assertEquals("1 order was completed. Order IDs: " + order1.getOrderId() + ".",
+                history.get(history.size() - 1).getDescription());
+        history = EventLog.getInstance().eventsForOrder(order2.getOrderId());
+        assertEquals(EventType.ORDERS_CANCELLED, history.get(history.size() - 1).getType());
+    }
+
+    @Test
+    void testCancelOrders() {
+        queue.addOrders(Arrays.asList(order1, order2));
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(1, queue.cancelOrders(order1.getOrderId(), order2.getOrderId()));
+        assertTrue(queue.isEmpty());
+        assertEquals(1, queue.getCompletedOrderCount());
+        assertNull(queue.findOrderById(order2.getOrderId()));
+        assertEquals(0, queue.getTotalBacklogMinutes());
+    }
+
+    @Test
+    void testCompletedRetentionByCount(@TempDir Path tempDir) throws IOException {
+        OrderArchive archive = new OrderArchive(tempDir.toString(), 2);
+        queue.setCompletedRetention(2, 0, archive);
+        List<Order> orders = addAndCompleteOrders(5);
+
+        assertEquals(5, queue.getCompletedOrderCount());
+        assertEquals(3, queue.getArchivedOrderCount());
+        assertEquals(2, queue.getCompletedOrders().size());
+        assertEquals(orders.get(3), queue.getCompletedOrders().get(0));
+        assertNull(queue.findCompletedOrderById(orders.get(0).getOrderId()));
+        assertEquals(2, queue.toJson().getJSONArray("completedOrders").length());
+
+        List<Order> page = queue.getCompletedOrders(1, 3);
+        assertEquals(3, page.size());
+        assertEquals(orders.get(1).getOrderId(), page.get(0).getOrderId());
+        assertEquals(orders.get(2).getOrderId(), page.get(1).getOrderId());
+        assertEquals(orders.get(3), page.get(2));
+
+        List<Integer> ids = new ArrayList<>();
+        queue.forEachCompletedOrder(order -> ids.add(order.getOrderId()));
+        assertEquals(5, ids.size());
+        assertEquals(orders.get(4).getOrderId(), ids.get(4));
+        archive.close();
+    }
+
+    @Test
+    void testCompletedRetentionByAge(@TempDir Path tempDir) throws IOException {
+        Instant start = Instant.parse("2025-08-04T13:00:00Z");
+        queue.setClock(Clock.fixed(start, ZoneOffset.UTC));
+        OrderArchive archive = new OrderArchive(tempDir.toString(), 10);
+        queue.setCompletedRetention(0, 30, archive);
+        List<Order> orders = addAndCompleteOrders(2);
+        assertEquals(0, queue.getArchivedOrderCount());
+
+        queue.setClock(Clock.fixed(start.plusSeconds(31 * 60), ZoneOffset.UTC));
+        queue.addOrder(order1);
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(2, queue.getArchivedOrderCount());
+        assertEquals(1, queue.getCompletedOrders().size());
+        assertEquals(orders.get(0).getOrderId(), queue.getCompletedOrders(0, 1).get(0).getOrderId());
+        archive.close();
+    }
+
+    @Test
+    void testReloadKeepsCompletionTimesAndArchivedSales(@TempDir Path tempDir) throws IOException {
+        Instant start = Instant.parse("2025-08-04T13:00:00Z");
+        queue.setClock(Clock.fixed(start, ZoneOffset.UTC));
+        OrderArchive archive = new OrderArchive(tempDir.resolve("archive").toString(), 10);
+        queue.setCompletedRetention(1, 30, archive);
+        addAndCompleteOrders(3);
+        archive.close();
+        String store = tempDir.resolve("queue.json").toString();
+        JsonWriter writer = new JsonWriter(store);
+        writer.open();
+        writer.write(queue);
+        writer.close();
+
+        OrderQueue reloaded = new JsonReader(store).read();
+        assertEquals(start.toEpochMilli(), reloaded.getCompletedOrders().get(0).getCompletedAtMillis());
+        reloaded.setClock(Clock.fixed(start.plusSeconds(31 * 60), ZoneOffset.UTC));
+        reloaded.setCompletedRetention(1, 30, new OrderArchive(tempDir.resolve("archive").toString(), 10));
+        assertEquals(3, reloaded.getArchivedOrderCount());
+        assertTrue(reloaded.getCompletedOrders().isEmpty());
+        assertEquals(3, reloaded.getSalesSummary().getOrderCount());
+    }
+
+    @Test
+    void testPagingWithoutRetention() throws IOException {
+        List<Order> orders = addAndCompleteOrders(3);
+        assertEquals(0, queue.getArchivedOrderCount());
+        assertEquals(orders.subList(1, 3), queue.getCompletedOrders(1, 5));
+    }
+
+    @Test
+    void testQueriesFollowOrderState() {
+        Flavor mint = new Flavor("Mint Chocolate Chip", 4.25);
+        Order order3 = new Order("John", mint, new Size("Large", 1.5), "ASAP", 4);
+        queue.addOrders(Arrays.asList(order1, order2, order3));
+
+        assertEquals(2, queue.countByCustomer("John", false));
+        assertEquals(1, queue.countByFlavor("Mint Chocolate Chip", false));
+        assertEquals(2, queue.countBySize("Small", false));
+        assertTrue(queue.findByCustomer("John", false).contains(order3));
+
+        queue.completeOrder(order1.getOrderId());
+        queue.cancelOrder(order3.getOrderId());
+        assertEquals(0, queue.countByCustomer("John", false));
+        assertEquals(1, queue.countByCustomer("John", true));
+        assertEquals(0, queue.countByFlavor("Mint Chocolate Chip", false));
+        assertEquals(0, queue.countByFlavor("Mint Chocolate Chip", true));
+        assertTrue(queue.findByFlavor("Vanilla", true).contains(order1));
+        assertTrue(queue.findBySize("Small", false).contains(order2));
+        assertEquals(0, queue.countBySize("Large", true));
+    }
+
+    @Test
+    void testArchivedOrdersLeaveCompletedIndexes(@TempDir Path tempDir) throws IOException {
+        OrderArchive archive = new OrderArchive(tempDir.toString(), 10);
+        queue.setCompletedRetention(1, 0, archive);
+        addAndCompleteOrders(3);
+        assertEquals(1, queue.countByFlavor("Vanilla", true));
+        archive.close();
+    }
+
+    @Test
+    void testSalesSummaryFollowsQueue() {
+        queue.addOrder(order1);
+        queue.addOrders(Arrays.asList(order2));
+        assertEquals(2, queue.getSalesSummary().getOrderCount());
+        assertEquals(700, queue.getSalesSummary().getRevenueCents());
+
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(700, queue.getSalesSummary().getRevenueCents());
+
+        queue.cancelOrder(order2.getOrderId());
+        assertEquals(1, queue.getSalesSummary().getOrderCount());
+        assertEquals(350, queue.getSalesSummary().getAverageTicketCents());
+    }
+
+    @Test
+    void testQueuedOrderCannotChangeStateBehindTheQueue() {
+        queue.addOrder(order1);
+        assertThrows(IllegalStateException.class, () -> order1.markCompleted());
+        assertThrows(IllegalStateException.class, () -> order1.setState(OrderState.READY));
+        assertEquals(OrderState.PLACED, order1.getState());
+
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(0, queue.getPendingOrderCount());
+        assertEquals(1, queue.getCompletedOrderCount());
+        assertTrue(order1.isCompleted());
+    }
+
+    @Test
+    void testSearchViewsReflectLaterChanges() {
+        Collection<Order> mochiBefore = queue.findByCustomer("Mochi", false);
+        Order mochi = new Order("Mochi", vanilla, small, "ASAP", 4);
+        queue.addOrder(mochi);
+        assertEquals(1, queue.countByCustomer("Mochi", false));
+        assertEquals(1, mochiBefore.size());
+
+        Collection<Order> pendingMochi = queue.findByCustomer("mochi", false);
+        queue.completeOrder(mochi.getOrderId());
+        assertTrue(pendingMochi.isEmpty());
+        queue.addOrder(order1);
+        Order again = new Order("Mochi", vanilla, small, "ASAP", 4);
+        queue.addOrder(again);
+        assertEquals(List.of(again), new ArrayList<>(pendingMochi));
+    }
+
+    @Test
+    void testLoadOrders() {
+        Order done = new Order("Mochi", vanilla, small, "ASAP", 4);
+        done.markCompleted();
+        queue.loadOrders(Arrays.asList(order1, order2), Arrays.asList(done));
+
+        assertEquals(2, queue.getPendingOrderCount());
+        assertEquals(1, queue.getCompletedOrderCount());
+        assertEquals(done, queue.findCompletedOrderById(done.getOrderId()));
+        assertEquals(order2, queue.findOrderById(order2.getOrderId()));
+        assertEquals(12, queue.getTotalBacklogMinutes());
+        assertEquals(3, queue.getSalesSummary().getOrderCount());
+        assertEquals(1050, queue.getSalesSummary().getRevenueCents());
+    }
+
+    @Test
+    void testViewsAreLiveAndReadOnly() {
+        Collection<Order> pending = queue.getPendingOrdersView();
+        Collection<Order> completed = queue.getCompletedOrdersView();
+        assertSame(pending, queue.getPendingOrdersView());
+        assertTrue(pending.isEmpty());
+
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(1, pending.size());
+        assertTrue(pending.contains(order2));
+        assertTrue(completed.contains(order1));
+        assertThrows(UnsupportedOperationException.class, () -> pending.add(order1));
+        assertThrows(UnsupportedOperationException.class, () -> pending.clear());
+    }
+
+    @Test
+    void testSnapshotsAreCopyOnWrite() {
+        queue.addOrder(order1);
+        List<Order> first = queue.getPendingOrdersSnapshot();
+        assertSame(first, queue.getPendingOrdersSnapshot());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(order2));
+
+        queue.addOrder(order2);
+        List<Order> second = queue.getPendingOrdersSnapshot();
+        assertNotSame(first, second);
+        assertEquals(1, first.size());
+        assertEquals(Arrays.asList(order1, order2), second);
+
+        queue.completeOrder(order2.getOrderId());
+        assertEquals(Arrays.asList(order2), queue.getCompletedOrdersSnapshot());
+    }
+
+    @Test
+    void testForEachPendingAndCompleted() {
+        queue.addOrders(Arrays.asList(order1, order2));
+        queue.completeOrder(order2.getOrderId());
+        List<Order> seen = new ArrayList<>();
+        queue.forEachPending(seen::add);
+        queue.forEachCompleted(seen::add);
+        assertEquals(Arrays.asList(order1, order2), seen);
+    }
+
+    @Test
+    void testLifecycleTransitions() {
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        assertEquals(OrderState.PLACED, queue.getOrderState(order1.getOrderId()));
+        assertEquals(2, queue.getOrderCount(OrderState.PLACED));
+
+        assertTrue(queue.startOrder(order1.getOrderId()));
+        assertEquals(OrderState.PREPARING, order1.getState());
+        assertEquals(1, queue.getOrderCount(OrderState.PLACED));
+        assertEquals(1, queue.getOrderCount(OrderState.PREPARING));
+        assertEquals(order2, queue.peekNextOrderToStart());
+
+        assertTrue(queue.markOrderReady(order1.getOrderId()));
+        assertEquals(7, queue.getTotalBacklogMinutes());
+        assertEquals(Arrays.asList(order1, order2), queue.getPendingOrders());
+        assertFalse(queue.startOrder(order1.getOrderId()));
+
+        queue.completeOrder(order1.getOrderId());
+        assertTrue(order1.isCompleted());
+        assertEquals(OrderState.PICKED_UP, order1.getState());
+        assertEquals(0, queue.getOrderCount(OrderState.READY));
+        assertEquals(1, queue.getCompletedOrderCount());
+        assertEquals(1, queue.getPendingOrderCount());
+    }
+
+    @Test
+    void testPendingOrdersGroupedByState() {
+        Order order3 = new Order("Bob", vanilla, small, "ASAP", 3);
+        queue.addOrders(Arrays.asList(order1, order2, order3));
+        queue.markOrderReady(order3.getOrderId());
+        assertEquals(order1, queue.pollNextOrderToStart());
+
+        assertEquals(Arrays.asList(order3, order1, order2), queue.getPendingOrders());
+        assertEquals(Arrays.asList(order3, order1, order2), queue.getPendingOrdersSnapshot());
+        assertEquals(3, queue.getPendingOrdersView().size());
+        assertEquals(7, queue.getNextOrderPrepTime());
+    }
+
+    @Test
+    void testCancelledOrdersKeptAsTombstones() {
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        queue.startOrder(order1.getOrderId());
+        queue.cancelOrder(order1.getOrderId());
+
+        assertEquals(OrderState.CANCELLED, queue.getOrderState(order1.getOrderId()));
+        assertTrue(queue.getOrdersInState(OrderState.CANCELLED).contains(order1));
+        assertNull(queue.findOrderById(order1.getOrderId()));
+        assertEquals(1, queue.getPendingOrderCount());
+        assertEquals(7, queue.getTotalBacklogMinutes());
+        assertEquals(1, queue.getSalesSummary().getOrderCount());
+        assertFalse(queue.advanceOrder(order1.getOrderId(), OrderState.PICKED_UP));
+        assertEquals(1, queue.cancelOrders(order1.getOrderId(), order2.getOrderId()));
+        assertEquals(2, queue.getOrderCount(OrderState.CANCELLED));
+    }
+
+    @Test
+    void testAdvanceOrderUnknownId() {
+        assertFalse(queue.advanceOrder(999, OrderState.READY));
+        assertNull(queue.getOrderState(999));
+    }
+
+    @Test
+    void testAdmissionOffByDefault() {
+        queue.setClock(Clock.fixed(Instant.parse("2024-01-01T12:00:00Z"), ZoneOffset.UTC));
+        queue.addOrder(order1);
+        AdmissionResult result = queue.admitOrder(order2);
+        assertEquals(AdmissionDecision.ACCEPTED, result.getDecision());
+        assertEquals(12, result.getWaitMinutes());
+        assertEquals(LocalTime.of(12, 12), result.getReadyTime());
+        assertEquals(2, queue.getPendingOrderCount());
+    }
+
+    @Test
+    void testAdmissionQuotesLaterPickup() {
+        queue.setCapacity(2, 10, AdmissionDecision.QUOTED);
+        queue.addOrders(Arrays.asList(order1, order2));
+        Order order3 = new Order("Bob", vanilla, small, "ASAP", 10);
+
+        AdmissionResult quote = queue.quoteOrder(order3);
+        assertEquals(AdmissionDecision.QUOTED, quote.getDecision());
+        assertEquals(11, quote.getWaitMinutes());
+        assertEquals(2, queue.getPendingOrderCount());
+
+        assertTrue(queue.admitOrder(order3).isQueued());
+        assertEquals(3, queue.getPendingOrderCount());
+    }
+
+    @Test
+    void testAdmissionRejects() {
+        queue.setCapacity(1, 10, AdmissionDecision.REJECTED);
+        queue.addOrder(order1);
+        AdmissionResult result = queue.admitOrder(order2);
+        assertEquals(AdmissionDecision.REJECTED, result.getDecision());
+        assertFalse(result.isQueued());
+        assertEquals(1, queue.getPendingOrderCount());
+        assertEquals(0, queue.getDeferredOrderCount());
+    }
+
+    @Test
+    void testAdmissionDefersUntilBacklogDrains() {
+        queue.setCapacity(1, 10, AdmissionDecision.DEFERRED);
+        queue.addOrder(order1);
+        assertEquals(AdmissionDecision.DEFERRED, queue.admitOrder(order2).getDecision());
+        assertEquals(1, queue.getPendingOrderCount());
+        assertEquals(1, queue.getDeferredOrderCount());
+
+        queue.startOrder(order1.getOrderId());
+        assertEquals(1, queue.getDeferredOrderCount());
+        queue.markOrderReady(order1.getOrderId());
+        assertEquals(0, queue.getDeferredOrderCount());
+        assertEquals(Arrays.asList(order1, order2), queue.getPendingOrders());
+        assertEquals(2, queue.getSalesSummary().getOrderCount());
+    }
+
+    @Test
+    void testRaisingCapacityAdmitsDeferredOrders() {
+        queue.setCapacity(1, 5, AdmissionDecision.DEFERRED);
+        queue.addOrder(order1);
+        queue.admitOrder(order2);
+        assertEquals(1, queue.getDeferredOrderCount());
+        queue.setCapacity(2, 10, AdmissionDecision.DEFERRED);
+        assertEquals(0, queue.getDeferredOrderCount());
+        assertEquals(2, queue.getScoopStations());
+        assertEquals(2, queue.getPendingOrderCount());
+    }
+
+    @Test
+    void testSnapshotSeesOrdersChangedInPlace() {
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        queue.completeOrder(order2.getOrderId());
+        OrderQueueSnapshot first = queue.getSnapshot();
+
+        order1.addTopping(new Topping("Cherry", 0.5));
+        order2.setCompletedAtMillis(42);
+        OrderQueueSnapshot second = queue.getSnapshot();
+        assertEquals(1, second.getPendingOrders().get(0).getToppings().size());
+        assertEquals(42, second.getCompletedOrders().get(0).getCompletedAtMillis());
+        assertTrue(first.getPendingOrders().get(0).getToppings().isEmpty());
+        assertTrue(second.toJson().similar(queue.toJson()));
+    }
+
+    @Test
+    void testDeferredOrderCanBeFoundAndCancelled() {
+        queue.setCapacity(1, 10, AdmissionDecision.DEFERRED);
+        queue.addOrder(order1);
+        queue.admitOrder(order2);
+        int id2 = order2.getOrderId();
+        assertTrue(queue.isDeferred(id2));
+        assertSame(order2, queue.findOrderById(id2));
+        assertEquals(OrderState.PLACED, queue.getOrderState(id2));
+        assertFalse(queue.startOrder(id2));
+        queue.completeOrder(id2);
+        assertTrue(queue.isDeferred(id2));
+
+        queue.cancelOrder(id2);
+        assertFalse(queue.isDeferred(id2));
+        assertEquals(0, queue.getDeferredOrderCount());
+        assertEquals(OrderState.CANCELLED, queue.getOrderState(id2));
+        assertEquals(List.of(order2), new ArrayList<>(queue.getOrdersInState(OrderState.CANCELLED)));
+        assertEquals(1, queue.getSalesSummary().getOrderCount());
+    }
+
+    @Test
+    void testNewOrdersQueueBehindDeferredOrders() {
+        Order order3 = new Order("Bob", vanilla, small, "ASAP", 1);
+        queue.setCapacity(1, 10, AdmissionDecision.DEFERRED);
+        queue.addOrder(order1);
+        queue.admitOrder(order2);
+        assertEquals(13, queue.quoteOrder(order3).getWaitMinutes());
+        assertEquals(AdmissionDecision.DEFERRED, queue.admitOrder(order3).getDecision());
+
+        queue.setCapacity(1, 10, AdmissionDecision.QUOTED);
+        Order order4 = new Order("Ann", vanilla, small, "ASAP", 1);
+        assertEquals(AdmissionDecision.DEFERRED, queue.admitOrder(order4).getDecision());
+        queue.cancelOrder(order1.getOrderId());
+        assertEquals(Arrays.asList(order2, order3, order4), queue.getPendingOrders());
+    }
+
+    @Test
+    void testSnapshotIsImmutableAndShared() {
+        queue.addOrder(order1);
+        queue.addOrder(order2);
+        queue.completeOrder(order1.getOrderId());
+        OrderQueueSnapshot first = queue.getSnapshot();
+        assertEquals(1, first.getPendingOrders().size());
+        assertEquals(order1.getOrderId(), first.getCompletedOrders().get(0).getOrderId());
+        assertTrue(first.toJson().similar(queue.toJson()));
+        assertThrows(UnsupportedOperationException.class, () -> first.getPendingOrders().clear());
+
+        queue.startOrder(order2.getOrderId());
+        OrderQueueSnapshot second = queue.getSnapshot();
+        assertSame(first.getCompletedOrders(), second.getCompletedOrders());
+        assertEquals(OrderState.PLACED, first.getPendingOrders().get(0).getState());
+        assertEquals(OrderState.PREPARING, second.getPendingOrders().get(0).getState());
+        assertEquals(1, second.getOrdersInState(OrderState.PREPARING).size());
+        assertTrue(second.getDeferredOrders().isEmpty());
+        assertSame(second.getPendingOrders(), queue.getSnapshot().getPendingOrders());
+    }
+
+    @Test
+    void testListenerSeesAddsAndStateChanges() {
+        RecordingListener listener = new RecordingListener();
+        queue.addListener(listener);
+        queue.addOrder(order1);
+        queue.startOrder(order1.getOrderId());
+        queue.completeOrder(order1.getOrderId());
+        queue.addOrder(order2);
+        queue.cancelOrder(order2.getOrderId());
+
+        int id1 = order1.getOrderId();
+        int id2 = order2.getOrderId();
+        assertEquals(List.of("added " + id1, "moved " + id1 + " PLACED->PREPARING",
+                "moved " + id1 + " PREPARING->PICKED_UP", "added " + id2, "moved " + id2 + " PLACED->CANCELLED"),
+                listener.changes);
+
+        queue.removeListener(listener);
+        queue.addOrder(new Order("Sam", vanilla, small, "ASAP", 5));
+        assertEquals(5, listener.changes.size());
+    }
+
+    @Test
+    void testListenerSeesCompletedOrderAfterCompletionFinishes() {
+        List<String> seen = new ArrayList<>();
+        queue.addOrder(order1);
+        queue.addListener(new RecordingListener() {
+            @Override
+            public void orderStateChanged(Order order, OrderState previous) {
+                List<Event> events = EventLog.getInstance().eventsForOrder(order.getOrderId());
+                seen.add(order.isCompleted() + " " + events.get(events.size() - 1).getType());
+            }
+        });
+        queue.completeOrder(order1.getOrderId());
+        assertEquals(List.of("true " + EventType.ORDER_COMPLETED), seen);
+    }
+
+    @Test
+    void testListenerSeesDeferredAdmissionAndBulkLoads() {
+        RecordingListener listener = new RecordingListener();
+        queue.setCapacity(1, 5, AdmissionDecision.DEFERRED);
+        queue.addOrder(order1);
+        queue.admitOrder(order2);
+        queue.addListener(listener);
+        queue.setCapacity(2, 10, AdmissionDecision.DEFERRED);
+        queue.addOrders(List.of(new Order("A", vanilla, small, "ASAP", 5), new Order("B", vanilla, small, "ASAP", 5)));
+
+        assertEquals(List.of("added " + order2.getOrderId(), "bulk"), listener.changes);
+    }
+
+    @Test
+    void testListenerSeesArchivedOrdersRemoved(@TempDir Path tempDir) throws IOException {
+        OrderArchive archive = new OrderArchive(tempDir.toString(), 10);
+        queue.setCompletedRetention(1, 0, archive);
+        RecordingListener listener = new RecordingListener();
+        queue.addListener(listener);
+        List<Order> orders = addAndCompleteOrders(2);
+
+        int id1 = orders.get(0).getOrderId();
+        int id2 = orders.get(1).getOrderId();
+        assertEquals(List.of("removed " + id1, "moved " + id2 + " PLACED->PICKED_UP"),
+                listener.changes.subList(listener.changes.size() - 2, listener.changes.size()));
+        archive.close();
+    }
+
     @Test
     void testToString() {
         String result = queue.toString();
@@ -199,4 +862,44 @@ public class OrderQueueTest {
         assertTrue(result.contains("Order #"));
         assertTrue(result.contains("John"));
     }
-} 
\ No newline at end of file
+
+    // MODIFIES: this
+    // EFFECTS: adds and then completes count new orders, returning them in order
+    private List<Order> addAndCompleteOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("Customer" + i, vanilla, small, "ASAP", 5);
+            queue.addOrder(order);
+            queue.completeOrder(order.getOrderId());
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /**
+     * Records each change an OrderQueue reports as a line of text
+     */
+    private static class RecordingListener implements OrderQueueListener {
+        private final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void orderAdded(Order order) {
+            changes.add("added " + order.getOrderId());
+        }
+
+        @Override
+        public void orderStateChanged(Order order, OrderState previous) {
+            changes.add("moved " + order.getOrderId() + " " + previous + "->" + order.getState());
+        }
+
+        @Override
+        public void orderRemoved(Order order) {
+            changes.add("removed " + order.getOrderId());
+        }
+
+        @Override
+        public void bulkLoaded() {
+            changes.add("bulk");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collection;
+
+/**
+ * Unit tests for the OrderSearchIndex class
+ */
+public class OrderSearchIndexTest {
+    private OrderSearchIndex index;
+    private Order mochiMint;
+    private Order mochiVanilla;
+    private Order tiyaMint;
+
+    @BeforeEach
+    void runBefore() {
+        index = new OrderSearchIndex();
+        Flavor mint = new Flavor("Mint Chocolate Chip", 4.25);
+        Flavor vanilla = new Flavor("Vanilla", 3.50);
+        Size small = new Size("Small", 1.0);
+        Size large = new Size("Large", 1.5);
+        mochiMint = new Order("Mochi", mint, small, "ASAP", 5);
+        mochiVanilla = new Order("Mochi", vanilla, large, "ASAP", 5);
+        tiyaMint = new Order("Tiya", mint, large, "ASAP", 5);
+        index.add(mochiMint);
+        index.add(mochiVanilla);
+        index.add(tiyaMint);
+    }
+
+    @Test
+    void testFindByCustomer() {
+        Collection<Order> orders = index.findByCustomer("mochi");
+        assertEquals(2, orders.size());
+        assertTrue(orders.contains(mochiMint));
+        assertTrue(orders.contains(mochiVanilla));
+        assertTrue(index.findByCustomer("Nobody").isEmpty());
+    }
+
+    @Test
+    void testCounts() {
+        assertEquals(2, index.countByFlavor("Mint Chocolate Chip"));
+        assertEquals(1, index.countByFlavor("VANILLA"));
+        assertEquals(2, index.countBySize("Large"));
+        assertEquals(1, index.countByCustomer("Tiya"));
+        assertEquals(0, index.countBySize("Medium"));
+    }
+
+    @Test
+    void testRemove() {
+        index.remove(mochiMint);
+        assertEquals(1, index.countByCustomer("Mochi"));
+        assertEquals(1, index.countByFlavor("Mint Chocolate Chip"));
+        assertEquals(0, index.countBySize("Small"));
+        assertTrue(index.findBySize("Small").isEmpty());
+    }
+
+    @Test
+    void testViewsAreReadOnlyAndLive() {
+        Collection<Order> mint = index.findByFlavor("Mint Chocolate Chip");
+        assertThrows(UnsupportedOperationException.class, () -> mint.remove(tiyaMint));
+        index.remove(tiyaMint);
+        assertEquals(1, mint.size());
+    }
+}
@@ -0,0 +1,41 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OrderState enum
+ */
+public class OrderStateTest {
+
+    @Test
+    void testIsPending() {
+        assertTrue(OrderState.PLACED.isPending());
+        assertTrue(OrderState.PREPARING.isPending());
+        assertTrue(OrderState.READY.isPending());
+        assertFalse(OrderState.PICKED_UP.isPending());
+        assertFalse(OrderState.CANCELLED.isPending());
+    }
+
+    @Test
+    void testCanTransitionForward() {
+        assertTrue(OrderState.PLACED.canTransitionTo(OrderState.PREPARING));
+        assertTrue(OrderState.PLACED.canTransitionTo(OrderState.PICKED_UP));
+        assertTrue(OrderState.PREPARING.canTransitionTo(OrderState.READY));
+        assertTrue(OrderState.READY.canTransitionTo(OrderState.CANCELLED));
+    }
+
+    @Test
+    void testCannotTransitionBackwardOrFromTerminal() {
+        assertFalse(OrderState.READY.canTransitionTo(OrderState.PREPARING));
+        assertFalse(OrderState.PLACED.canTransitionTo(OrderState.PLACED));
+        assertFalse(OrderState.PICKED_UP.canTransitionTo(OrderState.CANCELLED));
+        assertFalse(OrderState.CANCELLED.canTransitionTo(OrderState.PICKED_UP));
+    }
+
+    @Test
+    void testGetDisplayName() {
+        assertEquals("Pending", OrderState.PLACED.getDisplayName());
+        assertEquals("Completed", OrderState.PICKED_UP.getDisplayName());
+    }
+}
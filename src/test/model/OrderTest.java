@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * Unit tests for the Order class
  */
@@ -75,6 +78,16 @@ public class OrderTest {
         assertTrue(order.getToppings().contains(nuts));
     }
 
+    @Test
+    void testGetToppingsView() {
+        List<Topping> view = order.getToppingsView();
+        assertSame(view, order.getToppingsView());
+        order.addTopping(sprinkles);
+        assertEquals(1, view.size());
+        assertEquals(sprinkles, view.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(nuts));
+    }
+
     @Test
     void testMarkCompleted() {
         assertFalse(order.isCompleted());
@@ -105,6 +118,36 @@ public class OrderTest {
         assertEquals(6.00, largeOrder.getTotalPrice());
     }
 
+    @Test
+    void testRepeatedToppingsAndMask() {
+        order.addTopping(sprinkles);
+        order.addTopping(nuts);
+        order.addTopping(sprinkles);
+        assertEquals(3, order.getToppingsView().size());
+        assertEquals(sprinkles, order.getToppingsView().get(2));
+        assertEquals(550, order.getTotalPriceCents());
+
+        long sprinklesBit = 1L << MenuCatalog.ordinalOf(sprinkles);
+        long nutsBit = 1L << MenuCatalog.ordinalOf(nuts);
+        assertEquals(sprinklesBit | nutsBit, order.getToppingMask());
+        assertEquals(0, new Order("Jane", vanilla, small, "3:00 PM", 7).getToppingMask());
+    }
+
+    @Test
+    void testGetTotalPriceCents() {
+        Size medium = new Size("Medium", 1.25);
+        Order mediumOrder = new Order("Jane", vanilla, medium, "3:00 PM", 7);
+        assertEquals(438, mediumOrder.getTotalPriceCents()); // 437.5 rounds half up
+        assertEquals(438, mediumOrder.getTotalPriceCents());
+
+        Topping fudge = new Topping("Fudge", 0.1);
+        for (int i = 0; i < 3; i++) {
+            order.addTopping(fudge);
+        }
+        assertEquals(380, order.getTotalPriceCents());
+        assertEquals(3.80, order.getTotalPrice());
+    }
+
     @Test
     void testToString() {
         String result = order.toString();
@@ -127,6 +170,49 @@ public class OrderTest {
         assertTrue(result.contains("Nuts"));
     }
 
+    @Test
+    void testToStringCachedUntilMutation() throws IOException {
+        String first = order.toString();
+        assertSame(first, order.toString());
+
+        order.addTopping(sprinkles);
+        String withTopping = order.toString();
+        assertNotSame(first, withTopping);
+        assertTrue(withTopping.contains("Total Price: $4.00"));
+
+        order.setState(OrderState.READY);
+        assertTrue(order.toString().contains("Status: Ready"));
+
+        StringBuilder out = new StringBuilder("> ");
+        order.appendTo(out);
+        assertEquals("> " + order.toString(), out.toString());
+    }
+
+    @Test
+    void testSnapshot() {
+        order.addTopping(sprinkles);
+        OrderSnapshot snapshot = order.snapshot();
+        assertSame(snapshot, order.snapshot());
+        assertEquals(order.getOrderId(), snapshot.getOrderId());
+        assertEquals("John Doe", snapshot.getCustomerName());
+        assertEquals(vanilla, snapshot.getFlavor());
+        assertEquals(small, snapshot.getSize());
+        assertEquals(List.of(sprinkles), snapshot.getToppings());
+        assertEquals("2:30 PM", snapshot.getPickupTime());
+        assertEquals(5, snapshot.getEstimatedPrepTime());
+        assertEquals(400, snapshot.getTotalPriceCents());
+        assertEquals(order.toString(), snapshot.toString());
+        assertTrue(snapshot.toJson().similar(order.toJson()));
+
+        order.addTopping(nuts);
+        order.markCompleted();
+        assertNotSame(snapshot, order.snapshot());
+        assertEquals(1, snapshot.getToppings().size());
+        assertEquals(OrderState.PLACED, snapshot.getState());
+        assertEquals(OrderState.PICKED_UP, order.snapshot().getState());
+        assertEquals(0, snapshot.getCompletedAtMillis());
+    }
+
     @Test
     void testToStringStatusPending() {
         String result = order.toString();
@@ -0,0 +1,125 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the PickupScheduler class
+ */
+public class PickupSchedulerTest {
+    private PickupScheduler scheduler;
+    private Flavor vanilla;
+    private Size small;
+
+    @BeforeEach
+    void runBefore() {
+        scheduler = new PickupScheduler(SchedulingMode.PICKUP_TIME);
+        vanilla = new Flavor("Vanilla", 3.50);
+        small = new Size("Small", 1.0);
+    }
+
+    @Test
+    void testEmptyScheduler() {
+        assertEquals(0, scheduler.size());
+        assertNull(scheduler.peek());
+        assertNull(scheduler.poll());
+    }
+
+    @Test
+    void testOrdersByLatestStartTime() {
+        Order threePm = createOrder("3:00 PM", 5);
+        Order twoPmSlow = createOrder("2:30 PM", 40);
+        Order asap = createOrder("ASAP", 5);
+        scheduler.add(threePm, 12 * 60);
+        scheduler.add(twoPmSlow, 12 * 60);
+        scheduler.add(asap, 14 * 60);
+
+        assertEquals(twoPmSlow, scheduler.poll()); // must start by 1:50 PM
+        assertEquals(asap, scheduler.poll()); // arrived at 2:00 PM
+        assertEquals(threePm, scheduler.poll());
+        assertNull(scheduler.poll());
+    }
+
+    @Test
+    void testTiesBrokenByArrival() {
+        Order first = createOrder("3:00 PM", 5);
+        Order second = createOrder("3:00 PM", 5);
+        scheduler.add(first, 0);
+        scheduler.add(second, 0);
+        assertEquals(first, scheduler.poll());
+        assertEquals(second, scheduler.poll());
+    }
+
+    @Test
+    void testFifoModeIgnoresPickupTime() {
+        scheduler = new PickupScheduler(SchedulingMode.FIFO);
+        Order late = createOrder("11:00 PM", 5);
+        Order early = createOrder("9:00 AM", 5);
+        scheduler.add(late, 0);
+        scheduler.add(early, 0);
+        assertEquals(late, scheduler.peek());
+
+        scheduler.setMode(SchedulingMode.PICKUP_TIME);
+        assertEquals(early, scheduler.peek());
+        scheduler.setMode(SchedulingMode.FIFO);
+        assertEquals(late, scheduler.peek());
+    }
+
+    @Test
+    void testRemoveFromMiddle() {
+        Order a = createOrder("1:00 PM", 5);
+        Order b = createOrder("2:00 PM", 5);
+        Order c = createOrder("3:00 PM", 5);
+        scheduler.add(c, 0);
+        scheduler.add(b, 0);
+        scheduler.add(a, 0);
+
+        assertTrue(scheduler.remove(b));
+        assertFalse(scheduler.remove(b));
+        assertFalse(scheduler.contains(b));
+        assertEquals(2, scheduler.size());
+        assertEquals(a, scheduler.poll());
+        assertEquals(c, scheduler.poll());
+    }
+
+    @Test
+    void testRandomizedHeapOrder() {
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int hour = 1 + random.nextInt(12);
+            Order order = createOrder(hour + ":" + (10 + random.nextInt(50)) + " PM", random.nextInt(30));
+            orders.add(order);
+            scheduler.add(order, 0);
+        }
+        for (int i = 0; i < orders.size(); i += 3) {
+            scheduler.remove(orders.get(i));
+        }
+        int previous = Integer.MIN_VALUE;
+        while (scheduler.size() > 0) {
+            Order next = scheduler.poll();
+            int start = next.getPickupLocalTime().toSecondOfDay() / 60 - next.getEstimatedPrepTime();
+            assertTrue(start >= previous);
+            previous = start;
+        }
+    }
+
+    @Test
+    void testClear() {
+        Order order = createOrder("1:00 PM", 5);
+        scheduler.add(order, 0);
+        scheduler.clear();
+        assertEquals(0, scheduler.size());
+        assertFalse(scheduler.contains(order));
+    }
+
+    // EFFECTS: returns a new order with the given pickup and preparation times
+    private Order createOrder(String pickupTime, int prepTime) {
+        return new Order("John", vanilla, small, pickupTime, prepTime);
+    }
+}
@@ -0,0 +1,46 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+
+/**
+ * Unit tests for the PickupTimeParser class
+ */
+public class PickupTimeParserTest {
+
+    @Test
+    void testParseAsap() {
+        assertNull(PickupTimeParser.parse("ASAP"));
+        assertNull(PickupTimeParser.parse("asap"));
+        assertNull(PickupTimeParser.parse(""));
+        assertNull(PickupTimeParser.parse(null));
+    }
+
+    @Test
+    void testParseTwelveHourTimes() {
+        assertEquals(LocalTime.of(14, 30), PickupTimeParser.parse("2:30 PM"));
+        assertEquals(LocalTime.of(15, 0), PickupTimeParser.parse("3:00PM"));
+        assertEquals(LocalTime.of(9, 15), PickupTimeParser.parse(" 9:15 am "));
+    }
+
+    @Test
+    void testParseTwentyFourHourTimes() {
+        assertEquals(LocalTime.of(10, 0), PickupTimeParser.parse("10:00"));
+        assertEquals(LocalTime.of(17, 45), PickupTimeParser.parse("17:45"));
+    }
+
+    @Test
+    void testParseUnrecognizedText() {
+        assertNull(PickupTimeParser.parse("after school"));
+        assertNull(PickupTimeParser.parse("25:00"));
+    }
+
+    @Test
+    void testOrderParsesPickupTime() {
+        Order order = new Order("John", new Flavor("Vanilla", 3.50), new Size("Small", 1.0), "2:30 PM", 5);
+        assertEquals(LocalTime.of(14, 30), order.getPickupLocalTime());
+        assertEquals("2:30 PM", order.getPickupTime());
+    }
+}
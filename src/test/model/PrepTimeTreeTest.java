@@ -0,0 +1,99 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the PrepTimeTree class
+ */
+public class PrepTimeTreeTest {
+    private PrepTimeTree tree;
+    private Flavor vanilla;
+    private Size small;
+
+    @BeforeEach
+    void runBefore() {
+        tree = new PrepTimeTree();
+        vanilla = new Flavor("Vanilla", 3.50);
+        small = new Size("Small", 1.0);
+    }
+
+    @Test
+    void testEmptyTree() {
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.getTotalMinutes());
+    }
+
+    @Test
+    void testPrefixSums() {
+        Order a = createOrder(5);
+        Order b = createOrder(7);
+        Order c = createOrder(3);
+        tree.add(a);
+        tree.add(b);
+        tree.add(c);
+
+        assertEquals(5, tree.minutesUpTo(a));
+        assertEquals(12, tree.minutesUpTo(b));
+        assertEquals(15, tree.minutesUpTo(c));
+        assertEquals(15, tree.getTotalMinutes());
+    }
+
+    @Test
+    void testRemoveFromMiddle() {
+        Order a = createOrder(5);
+        Order b = createOrder(7);
+        Order c = createOrder(3);
+        tree.add(a);
+        tree.add(b);
+        tree.add(c);
+
+        assertTrue(tree.remove(b));
+        assertFalse(tree.remove(b));
+        assertFalse(tree.contains(b));
+        assertEquals(8, tree.minutesUpTo(c));
+        assertEquals(8, tree.getTotalMinutes());
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    void testCompactionAndGrowthKeepSumsCorrect() {
+        Random random = new Random(7);
+        List<Order> live = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Order order = createOrder(random.nextInt(20));
+            tree.add(order);
+            live.add(order);
+            if (random.nextInt(3) == 0) {
+                tree.remove(live.remove(random.nextInt(live.size())));
+            }
+        }
+        long expected = 0;
+        for (Order order : live) {
+            expected += order.getEstimatedPrepTime();
+            assertEquals(expected, tree.minutesUpTo(order));
+        }
+        assertEquals(expected, tree.getTotalMinutes());
+        assertEquals(live.size(), tree.size());
+    }
+
+    @Test
+    void testClear() {
+        Order a = createOrder(5);
+        tree.add(a);
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.getTotalMinutes());
+        assertFalse(tree.contains(a));
+    }
+
+    // EFFECTS: returns a new order with the given preparation time
+    private Order createOrder(int prepTime) {
+        return new Order("John", vanilla, small, "ASAP", prepTime);
+    }
+}
@@ -0,0 +1,90 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for the SalesAggregates and SalesSummary classes
+ */
+public class SalesAggregatesTest {
+    private SalesAggregates sales;
+    private Order vanillaSmall;
+    private Order chocolateLarge;
+
+    @BeforeEach
+    void runBefore() {
+        sales = new SalesAggregates();
+        Topping sprinkles = new Topping("Sprinkles", 0.50);
+        vanillaSmall = new Order("John", new Flavor("Vanilla", 3.50), new Size("Small", 1.0), "ASAP", 5);
+        vanillaSmall.addTopping(sprinkles);
+        chocolateLarge = new Order("Jane", new Flavor("Chocolate", 4.00), new Size("Large", 1.5), "ASAP", 5);
+        chocolateLarge.addTopping(sprinkles);
+        chocolateLarge.addTopping(new Topping("Nuts", 1.00));
+    }
+
+    @Test
+    void testEmptySummary() {
+        SalesSummary summary = sales.snapshot();
+        assertEquals(0, summary.getOrderCount());
+        assertEquals(0, summary.getRevenueCents());
+        assertEquals(0, summary.getAverageTicketCents());
+        assertTrue(summary.getRevenueByFlavor().isEmpty());
+    }
+
+    @Test
+    void testAddOrders() {
+        sales.add(vanillaSmall);
+        sales.add(chocolateLarge);
+        SalesSummary summary = sales.snapshot();
+
+        assertEquals(2, summary.getOrderCount());
+        assertEquals(400 + 825, summary.getRevenueCents());
+        assertEquals(612, summary.getAverageTicketCents());
+        assertEquals(350, summary.getRevenueByFlavor().get("Vanilla"));
+        assertEquals(600, summary.getRevenueByFlavor().get("Chocolate"));
+        assertEquals(1, summary.getCountByFlavor().get("Chocolate"));
+        assertEquals(825, summary.getRevenueBySize().get("Large"));
+        assertEquals(1, summary.getCountBySize().get("Small"));
+        assertEquals(2, summary.getCountByTopping().get("Sprinkles"));
+        assertEquals(50 + 75, summary.getRevenueByTopping().get("Sprinkles"));
+        assertEquals(150, summary.getRevenueByTopping().get("Nuts"));
+    }
+
+    @Test
+    void testRemoveOrder() {
+        sales.add(vanillaSmall);
+        sales.add(chocolateLarge);
+        sales.remove(chocolateLarge);
+        SalesSummary summary = sales.snapshot();
+
+        assertEquals(1, summary.getOrderCount());
+        assertEquals(400, summary.getRevenueCents());
+        assertFalse(summary.getCountByFlavor().containsKey("Chocolate"));
+        assertFalse(summary.getCountByTopping().containsKey("Nuts"));
+        assertEquals(1, summary.getCountByTopping().get("Sprinkles"));
+    }
+
+    @Test
+    void testSnapshotIsCachedUntilChange() {
+        sales.add(vanillaSmall);
+        SalesSummary first = sales.snapshot();
+        assertSame(first, sales.snapshot());
+        sales.add(chocolateLarge);
+        assertNotSame(first, sales.snapshot());
+        assertEquals(1, first.getOrderCount());
+        assertThrows(UnsupportedOperationException.class, () -> first.getCountBySize().put("Small", 5L));
+    }
+
+    @Test
+    void testRebuild() {
+        sales.add(vanillaSmall);
+        sales.rebuild(Collections.singletonList(chocolateLarge), Arrays.asList(vanillaSmall));
+        SalesSummary summary = sales.snapshot();
+        assertEquals(2, summary.getOrderCount());
+        assertEquals(1225, summary.getRevenueCents());
+    }
+}
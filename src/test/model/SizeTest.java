@@ -43,4 +43,13 @@ public class SizeTest {
         String expectedLarge = "Large (x1.5)";
         assertEquals(expectedLarge, large.toString());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testScaleCents() {
+        assertEquals(350, small.scaleCents(350));
+        assertEquals(525, large.scaleCents(350));
+        Size medium = new Size("Medium", 1.25);
+        assertEquals(438, medium.scaleCents(350)); // 437.5 rounds half up
+        assertEquals(436, medium.scaleCents(349)); // 436.25 rounds down
+    }
+}
@@ -44,10 +44,11 @@ public class ToppingTest {
 
     @Test
     void testSetAvailable() {
-        sprinkles.setAvailable(false);
+        MenuCatalog.getInstance().setAvailable(sprinkles, false);
         assertFalse(sprinkles.isAvailable());
-        
-        sprinkles.setAvailable(true);
+        assertFalse(MenuCatalog.getInstance().getTopping(sprinkles.getName(), sprinkles.getPrice()).isAvailable());
+
+        MenuCatalog.getInstance().setAvailable(sprinkles, true);
         assertTrue(sprinkles.isAvailable());
     }
 
@@ -59,4 +60,10 @@ public class ToppingTest {
         String expectedNuts = "Nuts ($1.00)";
         assertEquals(expectedNuts, nuts.toString());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testGetPriceCents() {
+        assertEquals(50, sprinkles.getPriceCents());
+        assertEquals(10, new Topping("Fudge", 0.1).getPriceCents());
+    }
+}
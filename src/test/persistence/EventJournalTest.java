@@ -0,0 +1,168 @@
+package persistence;
+
+import model.Event;
+import model.EventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EventJournal
+ */
+public class EventJournalTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAppendAndReplay() throws IOException {
+        EventJournal journal = new EventJournal(tempDir.toString(), 4096);
+        Event found = new Event(EventType.ORDER_FOUND, 4, 0);
+        assertEquals(0, journal.append(new Event("opened")));
+        assertEquals(1, journal.append(found));
+        assertEquals(2, journal.getNextSequence());
+        journal.close();
+
+        List<Event> events = replay();
+        assertEquals(2, events.size());
+        assertEquals(EventType.MESSAGE, events.get(0).getType());
+        assertEquals("opened", events.get(0).getDescription());
+        assertEquals(EventType.ORDER_FOUND, events.get(1).getType());
+        assertEquals(4, events.get(1).getOrderId());
+        assertEquals(found.getTimestampNanos(), events.get(1).getTimestampNanos());
+        assertEquals("Order with ID 4 was found in the queue.", events.get(1).getDescription());
+    }
+
+    @Test
+    void testReopenContinuesSequence() throws IOException {
+        EventJournal journal = new EventJournal(tempDir.toString(), 4096);
+        journal.write(List.of(new Event("a"), new Event("b")));
+        journal.close();
+
+        EventJournal reopened = new EventJournal(tempDir.toString(), 4096);
+        assertEquals(2, reopened.getNextSequence());
+        assertEquals(2, reopened.append(new Event("c")));
+        reopened.close();
+        assertEquals(List.of("a", "b", "c"), descriptions(replay()));
+    }
+
+    @Test
+    void testRollsOverSegments() throws IOException {
+        EventJournal journal = new EventJournal(tempDir.toString(), 256);
+        for (int i = 0; i < 50; i++) {
+            journal.append(new Event(EventType.ORDER_ADDED, i, 0));
+        }
+        journal.close();
+        assertTrue(Files.exists(journal.segmentPath(5)));
+
+        List<Event> events = replay();
+        assertEquals(50, events.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, events.get(i).getOrderId());
+        }
+
+        EventJournal.Reader reader = EventJournal.openReader(tempDir.toString(), 37);
+        assertEquals(37, reader.poll().getOrderId());
+        assertEquals(37, reader.getLastSequence());
+    }
+
+    @Test
+    void testReaderTailsLiveJournal() throws IOException {
+        EventJournal journal = new EventJournal(tempDir.toString(), 256);
+        EventJournal.Reader reader = EventJournal.openReader(tempDir.toString(), 0);
+        assertNull(reader.poll());
+
+        journal.append(new Event("first"));
+        assertEquals("first", reader.poll().getDescription());
+        assertNull(reader.poll());
+
+        for (int i = 0; i < 20; i++) {
+            journal.append(new Event(EventType.ORDER_CANCELLED, i, 0));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, reader.poll().getOrderId());
+        }
+        assertNull(reader.poll());
+        journal.close();
+    }
+
+    @Test
+    void testCorruptLastRecordIsSkippedAndKept() throws IOException {
+        EventJournal journal = new EventJournal(tempDir.toString(), 4096);
+        journal.append(new Event("kept"));
+        journal.append(new Event("damaged"));
+        journal.close();
+        corruptLastByteOf("damaged", journal.segmentPath(0));
+
+        assertEquals(List.of("kept"), descriptions(replay()));
+        EventJournal reopened = new EventJournal(tempDir.toString(), 4096);
+        assertEquals(1, reopened.append(new Event("replacement")));
+        reopened.close();
+        assertEquals(List.of("kept", "replacement"), descriptions(replay()));
+        assertTrue(new String(Files.readAllBytes(journal.segmentPath(0)), StandardCharsets.ISO_8859_1)
+                .contains("damageX"));
+    }
+
+    @Test
+    void testCorruptRecordInTheMiddleIsSkipped() throws IOException {
+        EventJournal journal = new EventJournal(tempDir.toString(), 4096);
+        journal.write(List.of(new Event("first"), new Event("damaged"), new Event("third")));
+        journal.append(new Event(EventType.ORDER_ADDED, 4, 0));
+        journal.close();
+        corruptLastByteOf("damaged", journal.segmentPath(0));
+
+        assertEquals(List.of("first", "third", "Order with ID 4 was added to the queue."),
+                descriptions(replay()));
+        EventJournal.Reader reader = EventJournal.openReader(tempDir.toString(), 1);
+        assertEquals("third", reader.poll().getDescription());
+        assertEquals(2, reader.getLastSequence());
+
+        EventJournal reopened = new EventJournal(tempDir.toString(), 4096);
+        assertEquals(4, reopened.append(new Event("after reopen")));
+        reopened.close();
+        assertEquals(List.of("first", "third", "Order with ID 4 was added to the queue.", "after reopen"),
+                descriptions(replay()));
+    }
+
+    @Test
+    void testEventTooLargeForSegment() throws IOException {
+        EventJournal journal = new EventJournal(tempDir.toString(), 128);
+        assertThrows(IOException.class, () -> journal.append(new Event("x".repeat(200))));
+        journal.close();
+    }
+
+    // EFFECTS: flips a byte inside the stored text of the given description
+    private void corruptLastByteOf(String description, Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int at = new String(bytes, StandardCharsets.ISO_8859_1).indexOf(description);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), at + description.length() - 1);
+        }
+    }
+
+    // EFFECTS: returns every event in the journal in tempDir
+    private List<Event> replay() throws IOException {
+        List<Event> events = new ArrayList<>();
+        EventJournal.replay(tempDir.toString(), events::add);
+        return events;
+    }
+
+    // EFFECTS: returns the descriptions of the given events
+    private List<String> descriptions(List<Event> events) {
+        List<String> result = new ArrayList<>();
+        for (Event e : events) {
+            result.add(e.getDescription());
+        }
+        return result;
+    }
+}
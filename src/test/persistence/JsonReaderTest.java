@@ -50,6 +50,15 @@ public class JsonReaderTest extends JsonTest {
             checkTopping("Sprinkles", 0.5, true, pending.get(0).getToppings().get(0));
             checkTopping("Nuts", 1.0, true, pending.get(1).getToppings().get(0));
             checkTopping("Cherry", 0.5, true, pending.get(1).getToppings().get(1));
+
+            // Menu items resolve to the shared catalog's instances
+            MenuCatalog catalog = MenuCatalog.getInstance();
+            assertSame(catalog.getTopping("Sprinkles", 0.5), pending.get(0).getToppingsView().get(0));
+            assertSame(catalog.getSize("Small", 1.0), pending.get(0).getSize());
+            assertSame(catalog.getFlavor("Vanilla", 3.5), pending.get(0).getFlavor());
+
+            // Sales totals are rebuilt from the loaded orders
+            assertEquals(3, oq.getSalesSummary().getOrderCount());
         } catch (IOException e) {
             fail("Couldn't read from file");
         }
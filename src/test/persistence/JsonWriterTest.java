@@ -84,4 +84,30 @@ public class JsonWriterTest extends JsonTest {
             fail("Exception should not have been thrown");
         }
     }
+
+    @Test
+    void testWriterKeepsDeferredOrders(@TempDir Path tempDir) {
+        try {
+            Order o1 = new Order("Alice", new Flavor("Vanilla", 3.5), new Size("Small", 1.0), "10:00", 5);
+            Order o2 = new Order("Bob", new Flavor("Mint", 3.75), new Size("Small", 1.0), "10:30", 6);
+            oq.setCapacity(1, 5, AdmissionDecision.DEFERRED);
+            oq.addOrder(o1);
+            oq.admitOrder(o2);
+
+            String file = tempDir.resolve("testWriterDeferredIceCreamShop.json").toString();
+            JsonWriter writer = new JsonWriter(file);
+            writer.open();
+            writer.write(oq);
+            writer.close();
+
+            JsonReader reader = new JsonReader(file);
+            oq = reader.read();
+            checkOrderQueue(1, 0, oq);
+            assertEquals(1, oq.getDeferredOrderCount());
+            assertTrue(oq.isDeferred(o2.getOrderId()));
+            assertEquals("Bob", oq.findOrderById(o2.getOrderId()).getCustomerName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
 }
\ No newline at end of file
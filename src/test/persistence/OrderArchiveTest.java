@@ -0,0 +1,148 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrderArchive
+ */
+public class OrderArchiveTest extends JsonTest {
+    @TempDir
+    Path tempDir;
+
+    private OrderArchive archive;
+    private Flavor vanilla;
+    private Size small;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        archive = new OrderArchive(tempDir.toString(), 3);
+        vanilla = new Flavor("Vanilla", 3.50);
+        small = new Size("Small", 1.0);
+    }
+
+    @Test
+    void testEmptyArchive() throws IOException {
+        assertEquals(0, archive.size());
+        assertTrue(archive.read(0, 10).isEmpty());
+    }
+
+    @Test
+    void testAppendAndReadAcrossSegments() throws IOException {
+        List<Order> orders = appendOrders(7);
+        assertEquals(7, archive.size());
+        assertTrue(Files.exists(tempDir.resolve("completed-00002.jsonl")));
+
+        List<Order> page = archive.read(2, 4);
+        assertEquals(4, page.size());
+        for (int i = 0; i < page.size(); i++) {
+            assertEquals(orders.get(i + 2).getOrderId(), page.get(i).getOrderId());
+            checkOrder("Customer" + (i + 2), "Vanilla", "Small", 1, true, page.get(i));
+        }
+        assertEquals(1, archive.read(6, 10).size());
+        assertTrue(archive.read(7, 10).isEmpty());
+    }
+
+    @Test
+    void testAttachedHistoryHoldsWholeArchive() throws IOException {
+        List<Order> orders = appendOrders(4);
+        HistoricalOrderStore store = new HistoricalOrderStore();
+        archive.attachHistory(store);
+        assertEquals(4, store.size());
+        assertEquals(orders.get(0).getOrderId(), store.getOrderId(0));
+
+        Order later = createCompletedOrder(9);
+        later.setCompletedAtMillis(1234);
+        archive.append(later);
+        assertEquals(5, store.size());
+        assertEquals(later.getOrderId(), store.getOrderId(4));
+        assertEquals("Customer9", store.getCustomerName(4));
+        archive.close();
+
+        HistoricalOrderStore reloaded = new HistoricalOrderStore();
+        new OrderArchive(tempDir.toString(), 3).attachHistory(reloaded);
+        assertEquals(5, reloaded.size());
+        assertEquals(1234, reloaded.getCompletedAtMillis(4));
+    }
+
+    @Test
+    void testForEachStreamsInOrder() throws IOException {
+        List<Order> orders = appendOrders(5);
+        List<Integer> ids = new ArrayList<>();
+        archive.forEach(order -> ids.add(order.getOrderId()));
+        assertEquals(5, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(orders.get(i).getOrderId(), ids.get(i));
+        }
+    }
+
+    @Test
+    void testReopenExistingArchive() throws IOException {
+        appendOrders(4);
+        archive.close();
+
+        OrderArchive reopened = new OrderArchive(tempDir.toString(), 3);
+        assertEquals(4, reopened.size());
+        reopened.append(createCompletedOrder(4));
+        assertEquals(5, reopened.size());
+        assertEquals("Customer4", reopened.read(4, 1).get(0).getCustomerName());
+        reopened.close();
+    }
+
+    @Test
+    void testPartialLineIsCutOffOnReopen() throws IOException {
+        appendOrders(4);
+        archive.close();
+        Path segment = tempDir.resolve("completed-00001.jsonl");
+        Files.writeString(segment, "{\"customerName\":\"Cus", StandardOpenOption.APPEND);
+
+        OrderArchive reopened = new OrderArchive(tempDir.toString(), 3);
+        assertEquals(4, reopened.size());
+        List<Integer> ids = new ArrayList<>();
+        reopened.forEach(order -> ids.add(order.getOrderId()));
+        assertEquals(4, ids.size());
+        reopened.append(createCompletedOrder(4));
+        reopened.close();
+        assertEquals(2, Files.readAllLines(segment).size());
+        assertEquals("Customer4", new OrderArchive(tempDir.toString(), 3).read(4, 1).get(0).getCustomerName());
+    }
+
+    @Test
+    void testReadingDoesNotConsumeOrderIds() throws IOException {
+        appendOrders(2);
+        int nextOrderId = Order.getNextOrderId();
+        archive.read(0, 2);
+        assertEquals(nextOrderId, Order.getNextOrderId());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends count completed orders to the archive and returns them
+    private List<Order> appendOrders(int count) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = createCompletedOrder(i);
+            archive.append(order);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    // EFFECTS: returns a completed order for the customer with the given number
+    private Order createCompletedOrder(int number) {
+        Order order = new Order("Customer" + number, vanilla, small, "ASAP", 5);
+        order.addTopping(new Topping("Sprinkles", 0.5));
+        order.markCompleted();
+        return order;
+    }
+}
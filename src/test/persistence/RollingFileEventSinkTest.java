@@ -0,0 +1,75 @@
+package persistence;
+
+import model.Event;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RollingFileEventSink
+ */
+public class RollingFileEventSinkTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWritesOneLinePerEvent() throws IOException {
+        RollingFileEventSink sink = new RollingFileEventSink(tempDir.toString(), 1_000_000, 2);
+        sink.write(List.of(new Event("first"), new Event("second")));
+        sink.close();
+
+        List<String> lines = Files.readAllLines(sink.logFile(0));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).endsWith("\tfirst"));
+        assertTrue(lines.get(1).endsWith("\tsecond"));
+    }
+
+    @Test
+    void testRollsOverAndKeepsLimitedOldFiles() throws IOException {
+        RollingFileEventSink sink = new RollingFileEventSink(tempDir.toString(), 50, 2);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            events.add(new Event("event number " + i));
+        }
+        sink.write(events);
+        sink.close();
+
+        assertTrue(Files.exists(sink.logFile(0)));
+        assertTrue(Files.exists(sink.logFile(1)));
+        assertTrue(Files.exists(sink.logFile(2)));
+        assertFalse(Files.exists(sink.logFile(3)));
+        List<String> current = Files.readAllLines(sink.logFile(0));
+        assertTrue(current.get(current.size() - 1).endsWith("event number 19"));
+    }
+
+    @Test
+    void testSizeLimitCountsUtf8Bytes() throws IOException {
+        RollingFileEventSink sink = new RollingFileEventSink(tempDir.toString(), 100, 2);
+        String euros = "\u20ac".repeat(20);
+        sink.write(List.of(new Event(euros), new Event(euros), new Event(euros)));
+        sink.close();
+
+        assertEquals(2, Files.readAllLines(sink.logFile(1)).size());
+        assertEquals(1, Files.readAllLines(sink.logFile(0)).size());
+        assertTrue(Files.readAllLines(sink.logFile(0)).get(0).endsWith("\t" + euros));
+    }
+
+    @Test
+    void testAppendsAcrossSinks() throws IOException {
+        RollingFileEventSink sink = new RollingFileEventSink(tempDir.toString(), 1_000_000, 1);
+        sink.write(List.of(new Event("first")));
+        sink.close();
+        RollingFileEventSink reopened = new RollingFileEventSink(tempDir.toString(), 1_000_000, 1);
+        reopened.write(List.of(new Event("second")));
+        reopened.close();
+
+        assertEquals(2, Files.readAllLines(reopened.logFile(0)).size());
+    }
+}